@@ -0,0 +1,48 @@
+package backend.config;
+
+import backend.model.Appointment;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+/**
+ * Appointment ids used to come from an IDENTITY column. On MySQL the pooled sequence is emulated by the
+ * {@code appointments_seq} table, which Hibernate creates starting at 1; this moves it past the highest
+ * existing id so the first allocated block cannot collide with rows inserted before the switch.
+ * Databases with native sequences have no such table and are left alone; any other failure stops startup,
+ * since a sequence left behind would only surface later as duplicate-key errors on insert.
+ * Runs once the schema update is done and before the web server starts taking requests.
+ */
+@Component
+public class AppointmentIdSequenceAligner implements SmartInitializingSingleton {
+    private static final String SEQUENCE_TABLE = "appointments_seq";
+
+    private final JdbcTemplate jdbc;
+
+    public AppointmentIdSequenceAligner(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!sequenceTableExists()) return;
+        jdbc.update(
+                "UPDATE " + SEQUENCE_TABLE + " SET next_val = (SELECT COALESCE(MAX(id), 0) + ? FROM appointments) " +
+                "WHERE next_val < (SELECT COALESCE(MAX(id), 0) + ? FROM appointments)",
+                Appointment.ID_ALLOCATION_SIZE, Appointment.ID_ALLOCATION_SIZE);
+    }
+
+    private boolean sequenceTableExists() {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con -> {
+            DatabaseMetaData meta = con.getMetaData();
+            String name = meta.storesUpperCaseIdentifiers() ? SEQUENCE_TABLE.toUpperCase() : SEQUENCE_TABLE;
+            try (ResultSet tables = meta.getTables(con.getCatalog(), con.getSchema(), name, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+}
@@ -0,0 +1,38 @@
+package backend.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * The schema update adds {@code slot_active} as NULL on rows that existed before it, which would leave legacy live
+ * bookings outside the {@code uk_appointments_slot} guard. This marks every pending or confirmed row active, then
+ * checks that none is left NULL. Only NULL rows are touched, so re-running it on later starts changes nothing.
+ * Runs once the schema update is done and before the web server starts taking requests.
+ */
+@Component
+public class AppointmentSlotActiveBackfill implements SmartInitializingSingleton {
+    private static final String LIVE = "status NOT IN ('CANCELLED', 'REJECTED')";
+
+    private final JdbcTemplate jdbc;
+
+    public AppointmentSlotActiveBackfill(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbc.update("UPDATE appointments SET slot_active = TRUE WHERE slot_active IS NULL AND " + LIVE);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException(
+                    "Appointments contain double-booked live slots; cancel the duplicates before starting", e);
+        }
+        Long missing = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE slot_active IS NULL AND " + LIVE, Long.class);
+        if (missing != null && missing > 0) {
+            throw new IllegalStateException(missing + " live appointments still have no slot_active flag");
+        }
+    }
+}
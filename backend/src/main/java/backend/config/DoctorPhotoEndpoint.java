@@ -0,0 +1,44 @@
+package backend.config;
+
+import backend.service.DoctorPhotoMigration;
+import backend.service.DoctorService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Shows how many doctor photos are still stored in the database at /actuator/doctorphotos; POST moves them and
+ * DELETE removes photo files no doctor refers to any more.
+ */
+@Component
+@Endpoint(id = "doctorphotos")
+public class DoctorPhotoEndpoint {
+    private final DoctorPhotoMigration migration;
+    private final DoctorService doctors;
+
+    public DoctorPhotoEndpoint(DoctorPhotoMigration migration, DoctorService doctors) {
+        this.migration = migration;
+        this.doctors = doctors;
+    }
+
+    @ReadOperation
+    public DoctorPhotoMigration.Stats stats() {
+        return migration.stats();
+    }
+
+    @WriteOperation
+    public DoctorPhotoMigration.Stats migrate() {
+        migration.migrate();
+        return migration.stats();
+    }
+
+    @DeleteOperation
+    public Map<String, Integer> sweep() throws IOException {
+        return Map.of("deleted", doctors.sweepPhotos());
+    }
+}
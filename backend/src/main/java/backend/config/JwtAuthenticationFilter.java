@@ -0,0 +1,70 @@
+package backend.config;
+
+import backend.service.InvalidTokenException;
+import backend.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests that carry {@code Authorization: Bearer <access token>} and stores the
+ * {@link TokenService.Principal} under {@link #PRINCIPAL_ATTRIBUTE}. Verification is a signature and expiry
+ * check only, with no database or BCrypt work. A bad token is rejected with 401; requests without a token pass
+ * through unless their path matches {@code security.jwt.protected-paths}.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String PRINCIPAL_ATTRIBUTE = "auth.principal";
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokens;
+    private final List<String> protectedPaths;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(TokenService tokens, @Value("${security.jwt.protected-paths:}") List<String> protectedPaths) {
+        this.tokens = tokens;
+        this.protectedPaths = protectedPaths.stream().map(String::trim).filter(p -> !p.isEmpty()).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, tokens.verifyAccess(header.substring(BEARER.length())));
+            } catch (InvalidTokenException e) {
+                reject(response, e.getMessage());
+                return;
+            }
+        } else if (!"OPTIONS".equals(request.getMethod()) && isProtected(request.getRequestURI())) {
+            reject(response, "Authentication required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean isProtected(String path) {
+        for (String pattern : protectedPaths) {
+            if (matcher.match(pattern, path)) return true;
+        }
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
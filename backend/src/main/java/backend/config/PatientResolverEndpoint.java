@@ -0,0 +1,33 @@
+package backend.config;
+
+import backend.service.PatientResolver;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Exposes the health ID cache counters at /actuator/patientresolver. */
+@Component
+@Endpoint(id = "patientresolver")
+public class PatientResolverEndpoint {
+    private final PatientResolver resolver;
+
+    public PatientResolverEndpoint(PatientResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        var s = resolver.stats();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("hits", s.hits());
+        m.put("misses", s.misses());
+        m.put("evictions", s.evictions());
+        m.put("size", s.size());
+        m.put("maxSize", s.maxWeight());
+        m.put("hitRate", s.hitRate());
+        return m;
+    }
+}
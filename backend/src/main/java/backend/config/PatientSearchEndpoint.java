@@ -0,0 +1,29 @@
+package backend.config;
+
+import backend.service.PatientSearchIndex;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/** Exposes patient search index size and rebuild timing at /actuator/patientsearch; POST rebuilds it. */
+@Component
+@Endpoint(id = "patientsearch")
+public class PatientSearchEndpoint {
+    private final PatientSearchIndex index;
+
+    public PatientSearchEndpoint(PatientSearchIndex index) {
+        this.index = index;
+    }
+
+    @ReadOperation
+    public PatientSearchIndex.Stats stats() {
+        return index.stats();
+    }
+
+    @WriteOperation
+    public PatientSearchIndex.Stats rebuild() {
+        index.rebuild();
+        return index.stats();
+    }
+}
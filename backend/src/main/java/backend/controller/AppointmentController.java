@@ -1,32 +1,62 @@
 package backend.controller;
 
+import backend.config.JwtAuthenticationFilter;
+import backend.dto.AppointmentPage;
+import backend.dto.AppointmentRow;
+import backend.dto.BatchBookingRequest;
+import backend.dto.BatchBookingResult;
+import backend.dto.BulkStatusRequest;
+import backend.dto.BulkStatusResult;
+import backend.dto.DoctorAvailability;
+import backend.dto.FreeSlot;
+import backend.dto.SlotHold;
+import backend.dto.WaitlistRow;
 import backend.model.Appointment;
 import backend.model.Doctor;
 import backend.repository.DoctorRepository;
+import backend.service.AppointmentExportService;
 import backend.service.AppointmentService;
+import backend.service.ForbiddenException;
+import backend.service.InvalidTokenException;
+import backend.service.TokenService;
+import backend.service.WaitlistService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = {"http://localhost:3000"})
 public class AppointmentController {
+    private static final long EXPORT_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     private final AppointmentService service;
     private final DoctorRepository doctorRepo;
+    private final WaitlistService waitlist;
+    private final AppointmentExportService export;
 
-    public AppointmentController(AppointmentService service, DoctorRepository doctorRepo) {
+    public AppointmentController(AppointmentService service, DoctorRepository doctorRepo, WaitlistService waitlist,
+                                 AppointmentExportService export) {
         this.service = service;
         this.doctorRepo = doctorRepo;
+        this.waitlist = waitlist;
+        this.export = export;
     }
 
     // Doctors search by specialization
     @GetMapping("/doctors/search")
     public List<Doctor> searchDoctors(@RequestParam String specialization) {
-        return doctorRepo.findAll().stream().filter(d -> d.getSpecialization()!=null && d.getSpecialization().toLowerCase().contains(specialization.toLowerCase()))
+        return doctorRepo.findBySpecializationContainingIgnoreCase(specialization).stream()
                 .map(d -> { Doctor x = new Doctor(); x.setId(d.getId()); x.setName(d.getName()); x.setEmail(d.getEmail()); x.setSpecialization(d.getSpecialization()); return x; })
                 .toList();
     }
@@ -38,43 +68,146 @@ public class AppointmentController {
         return service.availableSlots(doctorId, date);
     }
 
-    // Book appointment by patient healthId
+    // Available slots for a doctor over a date range (inclusive), keyed by date
+    @GetMapping("/appointments/slots/range")
+    public Map<LocalDate, List<LocalTime>> slotsRange(@RequestParam Long doctorId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return service.availableSlotsRange(doctorId, from, to);
+    }
+
+    // Free slots of all doctors in a specialization over a date range, earliest availability first
+    @GetMapping("/appointments/slots/specialization")
+    public List<DoctorAvailability> slotsBySpecialization(@RequestParam String specialization,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return service.availableSlotsBySpecialization(specialization, from, to);
+    }
+
+    // Earliest free slots for a doctor or a specialization, starting now unless 'after' is given
+    @GetMapping("/appointments/slots/next")
+    public List<FreeSlot> nextSlots(@RequestParam(required = false) Long doctorId,
+                                    @RequestParam(required = false) String specialization,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+                                    @RequestParam(defaultValue = "5") int count,
+                                    @RequestParam(defaultValue = "60") int lookaheadDays) {
+        return service.nextAvailable(doctorId, specialization, after != null ? after : LocalDateTime.now(), count, lookaheadDays);
+    }
+
+    // Book appointment for the signed-in patient
     @PostMapping("/appointments/book")
-    public Appointment book(@RequestParam String healthId,
+    public AppointmentRow book(@RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) TokenService.Principal principal,
                             @RequestParam Long doctorId,
                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time) {
-        return service.book(healthId, doctorId, date, time);
+                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+                            @RequestParam(required = false) String holdToken) {
+        return AppointmentRow.of(service.book(signedInPatient(principal), doctorId, date, time, holdToken));
     }
 
-    // Patient's appointments
+    // Hold a slot for a few minutes while the patient confirms
+    @PostMapping("/appointments/holds")
+    public SlotHold hold(@RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) TokenService.Principal principal,
+                         @RequestParam Long doctorId,
+                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time) {
+        return service.hold(signedInPatient(principal), doctorId, date, time);
+    }
+
+    // Give a held slot back
+    @DeleteMapping("/appointments/holds/{token}")
+    public void releaseHold(@PathVariable String token) { service.releaseHold(token); }
+
+    // Bulk booking for call centre / partner imports; one outcome per item
+    @PostMapping("/appointments/book/batch")
+    public List<BatchBookingResult> bookBatch(@RequestBody List<BatchBookingRequest> items) {
+        return service.bookBatch(items);
+    }
+
+    // Join the waitlist for a doctor's day; the first freed slot goes to the longest-waiting patient
+    @PostMapping("/appointments/waitlist")
+    public WaitlistRow joinWaitlist(@RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) TokenService.Principal principal,
+                                      @RequestParam Long doctorId,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return waitlist.join(signedInPatient(principal), doctorId, date);
+    }
+
+    // Waitlist for a doctor's day in queue order
+    @GetMapping("/appointments/waitlist")
+    public List<WaitlistRow> waitlist(@RequestParam Long doctorId,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return waitlist.list(doctorId, date);
+    }
+
+    // Leave the waitlist
+    @DeleteMapping("/appointments/waitlist/{id}")
+    public void leaveWaitlist(@PathVariable Long id) { waitlist.leave(id); }
+
+    // Signed-in patient's appointments
     @GetMapping("/appointments/mine")
-    public List<Appointment> my(@RequestParam String healthId) {
-        return service.byPatient(healthId);
+    public List<AppointmentRow> my(@RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) TokenService.Principal principal) {
+        return service.byPatient(signedInPatient(principal));
     }
 
     // Patient updates an appointment (reschedule)
     @PutMapping("/appointments/{id}")
-    public Appointment update(@PathVariable Long id,
+    public AppointmentRow update(@PathVariable Long id,
                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time) {
-        return service.updatePatientAppointment(id, date, time);
+        return AppointmentRow.of(service.updatePatientAppointment(id, date, time));
     }
 
     // Patient cancels
     @DeleteMapping("/appointments/{id}")
-    public Appointment cancel(@PathVariable Long id) { return service.cancel(id); }
+    public AppointmentRow cancel(@PathVariable Long id) { return AppointmentRow.of(service.cancel(id)); }
 
     // Admin confirm/reject
     @PostMapping("/admin/appointments/{id}/confirm")
-    public Appointment confirm(@PathVariable Long id) { return service.setStatus(id, Appointment.Status.CONFIRMED); }
+    public AppointmentRow confirm(@PathVariable Long id) { return AppointmentRow.of(service.setStatus(id, Appointment.Status.CONFIRMED)); }
     @PostMapping("/admin/appointments/{id}/reject")
-    public Appointment reject(@PathVariable Long id) { return service.setStatus(id, Appointment.Status.REJECTED); }
+    public AppointmentRow reject(@PathVariable Long id) { return AppointmentRow.of(service.setStatus(id, Appointment.Status.REJECTED)); }
+
+    // Admin: confirm/reject many appointments in one request; one outcome per id
+    @PostMapping("/admin/appointments/status")
+    public List<BulkStatusResult> bulkStatus(@RequestBody BulkStatusRequest req) {
+        return service.bulkSetStatus(req.ids, req.status);
+    }
 
-    // Admin: list appointments (optional filter by status)
+    // Admin: list appointments a page at a time in (date, time, id) order; pass nextCursor back as 'cursor'
     @GetMapping("/admin/appointments")
-    public List<Appointment> adminList(@RequestParam(required = false) Appointment.Status status) {
-        if (status == null) return service.listAll();
-        return service.listByStatus(status);
+    public AppointmentPage adminList(@RequestParam(required = false) Appointment.Status status,
+                                     @RequestParam(required = false) Long doctorId,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "50") int limit) {
+        return service.listPage(status, doctorId, from, to, cursor, limit);
+    }
+
+    // Admin/BI: every matching appointment as newline-delimited JSON, streamed as rows are read.
+    // Large tables take minutes, so this response alone gets a long async timeout.
+    @GetMapping("/admin/appointments/export")
+    public WebAsyncTask<Void> exportNdjson(@RequestParam(required = false) Appointment.Status status,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=appointments.ndjson");
+        return new WebAsyncTask<>(EXPORT_TIMEOUT_MILLIS, () -> {
+            export.writeNdjson(status, from, to, response.getOutputStream());
+            return null;
+        });
+    }
+
+    // Admin: the whole table in one response (optional filter by status); only with an explicit all=true
+    @GetMapping(value = "/admin/appointments", params = "all=true")
+    public List<AppointmentRow> adminListAll(@RequestParam(required = false) Appointment.Status status) {
+        return service.listAllRows(status);
+    }
+
+    // Health ID of the patient the filter authenticated; the token subject, never a request parameter
+    static String signedInPatient(TokenService.Principal principal) {
+        if (principal == null) throw new InvalidTokenException("Authentication required");
+        if (principal.role() != TokenService.Role.PATIENT) throw new ForbiddenException("Patient sign-in required");
+        return principal.subject();
     }
 }
@@ -0,0 +1,23 @@
+package backend.controller;
+
+import backend.dto.RefreshRequest;
+import backend.dto.TokenPair;
+import backend.service.TokenService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = {"http://localhost:3000"})
+public class AuthController {
+    private final TokenService tokens;
+
+    public AuthController(TokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    // Exchange a refresh token for a new access/refresh pair
+    @PostMapping("/refresh")
+    public TokenPair refresh(@RequestBody RefreshRequest req) {
+        return tokens.refresh(req.refreshToken);
+    }
+}
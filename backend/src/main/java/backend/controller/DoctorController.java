@@ -1,15 +1,25 @@
 package backend.controller;
 
+import backend.dto.DoctorAppointmentRow;
+import backend.dto.DoctorLoginResponse;
 import backend.model.Doctor;
-import backend.model.Appointment;
+import backend.model.DoctorSchedule;
+import backend.service.DoctorScheduleService;
 import backend.service.DoctorService;
+import backend.service.TokenService;
 import backend.dto.LoginRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,9 +27,13 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:3000"})
 public class DoctorController {
     private final DoctorService service;
+    private final DoctorScheduleService scheduleService;
+    private final TokenService tokens;
 
-    public DoctorController(DoctorService service) {
+    public DoctorController(DoctorService service, DoctorScheduleService scheduleService, TokenService tokens) {
         this.service = service;
+        this.scheduleService = scheduleService;
+        this.tokens = tokens;
     }
 
     // Admin: create doctor profile with photo upload
@@ -57,15 +71,23 @@ public class DoctorController {
         return copy;
     }
 
-    // Public: get doctor photo by id
+    // Public: get doctor photo by id, streamed from the file store with Range support; the content hash is the ETag
     @GetMapping(value = "/{id}/photo")
-    public ResponseEntity<byte[]> photo(@PathVariable Long id) {
-        Doctor d = service.get(id);
-        byte[] bytes = d.getPhoto();
-        String ct = d.getPhotoContentType() != null ? d.getPhotoContentType() : MediaType.IMAGE_JPEG_VALUE;
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_TYPE, ct)
-                .body(bytes != null ? bytes : new byte[0]);
+    public ResponseEntity<Resource> photo(@PathVariable Long id, WebRequest request) {
+        var photo = service.photo(id);
+        if (photo.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DoctorService.Photo p = photo.get();
+        // The URL stays the same when the photo changes, so clients revalidate (cheaply, via the ETag)
+        CacheControl caching = CacheControl.noCache();
+        if (p.etag() != null && request.checkNotModified(p.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(p.etag()).cacheControl(caching).build();
+        }
+        String ct = p.contentType() != null ? p.contentType() : MediaType.IMAGE_JPEG_VALUE;
+        var response = ResponseEntity.ok().cacheControl(caching).header(HttpHeaders.CONTENT_TYPE, ct);
+        if (p.etag() != null) response.eTag(p.etag());
+        return response.body(p.body());
     }
 
     // Admin: update doctor (multipart - all fields optional)
@@ -92,13 +114,41 @@ public class DoctorController {
 
     // Doctor: login with email/password (email must match created doctor)
     @PostMapping("/login")
-    public Doctor login(@RequestBody LoginRequest req){
-        return service.login(req.email, req.password);
+    public DoctorLoginResponse login(@RequestBody LoginRequest req){
+        Doctor d = service.login(req.email, req.password);
+        return new DoctorLoginResponse(d, tokens.issue(TokenService.Role.DOCTOR, String.valueOf(d.getId())));
     }
 
     // Doctor: my appointments by doctor id
     @GetMapping("/{id}/appointments")
-    public List<Appointment> myAppointments(@PathVariable Long id){
-        return service.appointmentsByDoctor(id);
+    public List<DoctorAppointmentRow> myAppointments(@PathVariable Long id){
+        return service.appointmentRowsByDoctor(id);
+    }
+
+    // Doctor: agenda for one day
+    @GetMapping(value = "/{id}/agenda", params = "date")
+    public List<DoctorAppointmentRow> agenda(@PathVariable Long id,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date){
+        return service.agenda(id, date, date);
+    }
+
+    // Doctor: agenda for a date range (inclusive)
+    @GetMapping(value = "/{id}/agenda", params = {"from", "to"})
+    public List<DoctorAppointmentRow> agendaRange(@PathVariable Long id,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        return service.agenda(id, from, to);
+    }
+
+    // Public: weekly working hours; an empty list means the default 9:00-17:00 grid
+    @GetMapping("/{id}/schedule")
+    public List<DoctorSchedule> schedule(@PathVariable Long id){
+        return scheduleService.get(id);
+    }
+
+    // Admin: replace weekly working hours, breaks and slot length
+    @PutMapping("/{id}/schedule")
+    public List<DoctorSchedule> updateSchedule(@PathVariable Long id, @RequestBody List<DoctorSchedule> days){
+        return scheduleService.replace(id, days);
     }
 }
@@ -2,26 +2,35 @@ package backend.controller;
 
 import backend.dto.LoginRequest;
 import backend.dto.LoginResponse;
+import backend.dto.PatientSearchResult;
 import backend.dto.RegisterRequest;
 import backend.dto.RegisterResponse;
 import backend.service.PatientService;
-import javax.imageio.ImageIO;
+import backend.service.QrImageService;
+import backend.service.TokenService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/patients")
 @CrossOrigin(origins = {"http://localhost:3000"}, allowCredentials = "true")
 public class PatientController {
     private final PatientService service;
+    private final TokenService tokens;
+    private final QrImageService qrImages;
 
-    public PatientController(PatientService service) {
+    public PatientController(PatientService service, TokenService tokens, QrImageService qrImages) {
         this.service = service;
+        this.tokens = tokens;
+        this.qrImages = qrImages;
     }
 
     @PostMapping("/register")
@@ -31,21 +40,37 @@ public class PatientController {
 
     @PostMapping("/login")
     public LoginResponse login(@RequestBody LoginRequest request) {
-        return service.login(request);
+        LoginResponse res = service.login(request);
+        return res.withTokens(tokens.issue(TokenService.Role.PATIENT, res.healthId));
     }
 
-    @GetMapping(value = "/{healthId}/qr", produces = MediaType.IMAGE_PNG_VALUE)
-    public ResponseEntity<byte[]> getQr(@PathVariable String healthId, @RequestParam(defaultValue = "false") boolean download) throws Exception {
-        BufferedImage image = service.qrForHealthId(healthId);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", baos);
-        byte[] bytes = baos.toByteArray();
+    // Front desk: ranked search by partial name, email or phone
+    @GetMapping("/search")
+    public List<PatientSearchResult> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        return service.search(q, limit);
+    }
 
+    // A health ID's QR never changes: cached image, strong ETag, immutable caching and 304 on If-None-Match
+    @GetMapping("/{healthId}/qr")
+    public ResponseEntity<byte[]> getQr(@PathVariable String healthId,
+                                        @RequestParam(defaultValue = "false") boolean download,
+                                        @RequestParam(defaultValue = "png") String format,
+                                        @RequestParam(defaultValue = "" + QrImageService.DEFAULT_SIZE) int size,
+                                        @RequestParam(defaultValue = "" + QrImageService.DEFAULT_MARGIN) int margin,
+                                        @RequestParam(defaultValue = "L") String ecc,
+                                        WebRequest request) {
+        QrImageService.QrImage qr = qrImages.render(healthId, QrImageService.Format.of(format), size, margin,
+                QrImageService.errorCorrection(ecc));
+        CacheControl caching = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        if (request.checkNotModified(qr.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(qr.etag()).cacheControl(caching).build();
+        }
         HttpHeaders headers = new HttpHeaders();
         if (download) {
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=healthid-" + healthId + ".png");
+            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=healthid-" + healthId + "." + qr.format().extension());
         }
-        return ResponseEntity.ok().headers(headers).contentType(MediaType.IMAGE_PNG).body(bytes);
+        return ResponseEntity.ok().headers(headers).eTag(qr.etag()).cacheControl(caching)
+                .contentType(MediaType.parseMediaType(qr.format().contentType)).body(qr.bytes());
     }
 
     @GetMapping("/{healthId}")
@@ -1,14 +1,19 @@
 package backend.controller;
 
+import backend.dto.QrSheetRequest;
+import backend.service.QrSheetService;
 import backend.service.ReportsService;
 import backend.model.Appointment;
 import backend.repository.AppointmentRepository;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -25,12 +30,16 @@ import java.awt.Color;
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = {"http://localhost:3000"})
 public class ReportsController {
+    private static final long QR_SHEET_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     private final ReportsService service;
     private final AppointmentRepository appointmentRepository;
+    private final QrSheetService qrSheets;
 
-    public ReportsController(ReportsService service, AppointmentRepository appointmentRepository) {
+    public ReportsController(ReportsService service, AppointmentRepository appointmentRepository, QrSheetService qrSheets) {
         this.service = service;
         this.appointmentRepository = appointmentRepository;
+        this.qrSheets = qrSheets;
     }
 
     // JSON endpoints
@@ -154,6 +163,19 @@ public class ReportsController {
                 .body(pdf);
     }
 
+    // PDF: printable QR cards for a registration drive, by health IDs or registration dates, streamed page by page.
+    // A drive of thousands of cards outlasts the default async timeout, so this response gets its own.
+    @PostMapping(value = "/export/patients/qr-cards.pdf", produces = "application/pdf")
+    public WebAsyncTask<Void> exportQrCards(@RequestBody QrSheetRequest req, HttpServletResponse response){
+        qrSheets.validate(req);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=patient-qr-cards.pdf");
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        return new WebAsyncTask<>(QR_SHEET_TIMEOUT_MILLIS, () -> {
+            qrSheets.write(req, response.getOutputStream());
+            return null;
+        });
+    }
+
     private byte[] buildAppointmentsPdf(java.util.List<Appointment> list){
         try{
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -0,0 +1,14 @@
+package backend.dto;
+
+import java.util.List;
+
+public class AppointmentPage {
+    public List<AppointmentRow> items;
+    // Pass back as 'cursor' to get the next page; null on the last page
+    public String nextCursor;
+
+    public AppointmentPage(List<AppointmentRow> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,36 @@
+package backend.dto;
+
+import backend.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Appointment list row and single-appointment response; the flat constructor is used by JPQL constructor expressions
+public class AppointmentRow {
+    public Long id;
+    public LocalDate date;
+    public LocalTime time;
+    public Appointment.Status status;
+    public PatientSummary patient;
+    public DoctorSummary doctor;
+
+    public AppointmentRow(Long id, LocalDate date, LocalTime time, Appointment.Status status,
+                          String patientHealthId, String patientName,
+                          Long doctorId, String doctorName, String specialization) {
+        this.id = id;
+        this.date = date;
+        this.time = time;
+        this.status = status;
+        this.patient = new PatientSummary(patientHealthId, patientName);
+        this.doctor = new DoctorSummary(doctorId, doctorName, specialization);
+    }
+
+    public static AppointmentRow of(Appointment a) {
+        return new AppointmentRow(a.getId(), a.getDate(), a.getTime(), a.getStatus(),
+                a.getPatient() != null ? a.getPatient().getHealthId() : null,
+                a.getPatient() != null ? a.getPatient().getFullName() : null,
+                a.getDoctor() != null ? a.getDoctor().getId() : null,
+                a.getDoctor() != null ? a.getDoctor().getName() : null,
+                a.getDoctor() != null ? a.getDoctor().getSpecialization() : null);
+    }
+}
@@ -0,0 +1,23 @@
+package backend.dto;
+
+import backend.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Status and slot of an appointment, selected without loading the patient and doctor
+public class AppointmentSlotRef {
+    public Long id;
+    public Appointment.Status status;
+    public Long doctorId;
+    public LocalDate date;
+    public LocalTime time;
+
+    public AppointmentSlotRef(Long id, Appointment.Status status, Long doctorId, LocalDate date, LocalTime time) {
+        this.id = id;
+        this.status = status;
+        this.doctorId = doctorId;
+        this.date = date;
+        this.time = time;
+    }
+}
@@ -0,0 +1,11 @@
+package backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class BatchBookingRequest {
+    public String healthId;
+    public Long doctorId;
+    public LocalDate date;
+    public LocalTime time;
+}
@@ -0,0 +1,17 @@
+package backend.dto;
+
+public class BatchBookingResult {
+    public enum Outcome { BOOKED, CONFLICT, INVALID }
+
+    public int index; // position in the request list
+    public Outcome outcome;
+    public Long appointmentId;
+    public String error;
+
+    public BatchBookingResult(int index, Outcome outcome, Long appointmentId, String error) {
+        this.index = index;
+        this.outcome = outcome;
+        this.appointmentId = appointmentId;
+        this.error = error;
+    }
+}
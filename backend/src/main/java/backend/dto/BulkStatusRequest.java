@@ -0,0 +1,10 @@
+package backend.dto;
+
+import backend.model.Appointment;
+
+import java.util.List;
+
+public class BulkStatusRequest {
+    public List<Long> ids;
+    public Appointment.Status status;
+}
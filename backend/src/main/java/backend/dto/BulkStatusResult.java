@@ -0,0 +1,15 @@
+package backend.dto;
+
+public class BulkStatusResult {
+    public enum Outcome { UPDATED, UNCHANGED, NOT_FOUND, INVALID }
+
+    public Long id;
+    public Outcome outcome;
+    public String error;
+
+    public BulkStatusResult(Long id, Outcome outcome, String error) {
+        this.id = id;
+        this.outcome = outcome;
+        this.error = error;
+    }
+}
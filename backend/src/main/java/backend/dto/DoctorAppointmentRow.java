@@ -0,0 +1,24 @@
+package backend.dto;
+
+import backend.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Row of a doctor's own appointment list; the doctor is implied, so only the patient summary is carried
+public class DoctorAppointmentRow {
+    public Long id;
+    public LocalDate date;
+    public LocalTime time;
+    public Appointment.Status status;
+    public PatientSummary patient;
+
+    public DoctorAppointmentRow(Long id, LocalDate date, LocalTime time, Appointment.Status status,
+                                String patientHealthId, String patientName) {
+        this.id = id;
+        this.date = date;
+        this.time = time;
+        this.status = status;
+        this.patient = new PatientSummary(patientHealthId, patientName);
+    }
+}
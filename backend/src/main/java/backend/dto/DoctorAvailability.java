@@ -0,0 +1,24 @@
+package backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+public class DoctorAvailability {
+    public Long doctorId;
+    public String name;
+    public String specialization;
+    public LocalDateTime earliest; // null when the doctor has no free slot in the window
+    public Map<LocalDate, List<LocalTime>> slots;
+
+    public DoctorAvailability(Long doctorId, String name, String specialization, LocalDateTime earliest,
+                              Map<LocalDate, List<LocalTime>> slots) {
+        this.doctorId = doctorId;
+        this.name = name;
+        this.specialization = specialization;
+        this.earliest = earliest;
+        this.slots = slots;
+    }
+}
@@ -0,0 +1,23 @@
+package backend.dto;
+
+import backend.model.Doctor;
+
+public class DoctorLoginResponse {
+    public Long id;
+    public String name;
+    public String email;
+    public String specialization;
+    public String accessToken;
+    public String refreshToken;
+    public long expiresIn;
+
+    public DoctorLoginResponse(Doctor doctor, TokenPair tokens) {
+        this.id = doctor.getId();
+        this.name = doctor.getName();
+        this.email = doctor.getEmail();
+        this.specialization = doctor.getSpecialization();
+        this.accessToken = tokens.accessToken;
+        this.refreshToken = tokens.refreshToken;
+        this.expiresIn = tokens.expiresIn;
+    }
+}
@@ -0,0 +1,13 @@
+package backend.dto;
+
+public class DoctorSummary {
+    public Long id;
+    public String name;
+    public String specialization;
+
+    public DoctorSummary(Long id, String name, String specialization) {
+        this.id = id;
+        this.name = name;
+        this.specialization = specialization;
+    }
+}
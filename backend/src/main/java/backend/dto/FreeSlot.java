@@ -0,0 +1,18 @@
+package backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class FreeSlot {
+    public Long doctorId;
+    public String doctorName;
+    public LocalDate date;
+    public LocalTime time;
+
+    public FreeSlot(Long doctorId, String doctorName, LocalDate date, LocalTime time) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.date = date;
+        this.time = time;
+    }
+}
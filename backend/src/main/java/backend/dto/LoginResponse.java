@@ -3,9 +3,19 @@ package backend.dto;
 public class LoginResponse {
     public String message;
     public String healthId;
+    public String accessToken;
+    public String refreshToken;
+    public long expiresIn;
 
     public LoginResponse(String message, String healthId) {
         this.message = message;
         this.healthId = healthId;
     }
+
+    public LoginResponse withTokens(TokenPair tokens) {
+        this.accessToken = tokens.accessToken;
+        this.refreshToken = tokens.refreshToken;
+        this.expiresIn = tokens.expiresIn;
+        return this;
+    }
 }
@@ -0,0 +1,17 @@
+package backend.dto;
+
+public class PatientSearchResult {
+    public Long id;
+    public String healthId;
+    public String fullName;
+    public String email;
+    public String phone;
+
+    public PatientSearchResult(Long id, String healthId, String fullName, String email, String phone) {
+        this.id = id;
+        this.healthId = healthId;
+        this.fullName = fullName;
+        this.email = email;
+        this.phone = phone;
+    }
+}
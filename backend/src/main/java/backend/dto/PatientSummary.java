@@ -0,0 +1,11 @@
+package backend.dto;
+
+public class PatientSummary {
+    public String healthId;
+    public String fullName;
+
+    public PatientSummary(String healthId, String fullName) {
+        this.healthId = healthId;
+        this.fullName = fullName;
+    }
+}
@@ -0,0 +1,11 @@
+package backend.dto;
+
+public class PhotoRef {
+    public String hash;
+    public String contentType;
+
+    public PhotoRef(String hash, String contentType) {
+        this.hash = hash;
+        this.contentType = contentType;
+    }
+}
@@ -0,0 +1,11 @@
+package backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Either explicit health IDs (printed in this order) or a registration date range, not both. */
+public class QrSheetRequest {
+    public List<String> healthIds;
+    public LocalDate from;
+    public LocalDate to;
+}
@@ -0,0 +1,5 @@
+package backend.dto;
+
+public class RefreshRequest {
+    public String refreshToken;
+}
@@ -0,0 +1,21 @@
+package backend.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class SlotHold {
+    public String token;
+    public Long doctorId;
+    public LocalDate date;
+    public LocalTime time;
+    public Instant expiresAt;
+
+    public SlotHold(String token, Long doctorId, LocalDate date, LocalTime time, Instant expiresAt) {
+        this.token = token;
+        this.doctorId = doctorId;
+        this.date = date;
+        this.time = time;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,13 @@
+package backend.dto;
+
+public class TokenPair {
+    public String accessToken;
+    public String refreshToken;
+    public long expiresIn; // seconds until the access token expires
+
+    public TokenPair(String accessToken, String refreshToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,20 @@
+package backend.dto;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+// Waitlist entry as returned by the API: its 1-based place in the doctor/day queue and the patient summary
+public class WaitlistRow {
+    public Long id;
+    public int position;
+    public LocalDate date;
+    public OffsetDateTime joinedAt;
+    public PatientSummary patient;
+
+    public WaitlistRow(Long id, LocalDate date, OffsetDateTime joinedAt, String patientHealthId, String patientName) {
+        this.id = id;
+        this.date = date;
+        this.joinedAt = joinedAt;
+        this.patient = new PatientSummary(patientHealthId, patientName);
+    }
+}
@@ -1,17 +1,28 @@
 package backend.model;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints = {
+        // slot_active is TRUE for live bookings and NULL otherwise, so cancelled/rejected rows never collide
+        @UniqueConstraint(name = "uk_appointments_slot", columnNames = {"doctor_id", "date", "time", "slot_active"})
+}, indexes = {
+        // Keyset order of the admin listing
+        @Index(name = "idx_appointments_date_time_id", columnList = "date, time, id")
+})
 public class Appointment {
     public enum Status { PENDING, CONFIRMED, REJECTED, CANCELLED }
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = Appointment.ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -30,6 +41,16 @@ public class Appointment {
     @Column(nullable = false)
     private Status status = Status.PENDING;
 
+    @JsonIgnore
+    @Column(name = "slot_active")
+    private Boolean slotActive = Boolean.TRUE;
+
+    @PrePersist
+    @PreUpdate
+    void syncSlotActive() {
+        slotActive = status != Status.REJECTED && status != Status.CANCELLED ? Boolean.TRUE : null;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public Patient getPatient() { return patient; }
@@ -22,10 +22,10 @@ public class Doctor {
     @JsonIgnore
     private String passwordHash;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
+    // SHA-256 (hex) of the photo file in the PhotoStore; photos not moved yet are in DoctorLegacyPhoto
     @JsonIgnore
-    private byte[] photo;
+    @Column(length = 64)
+    private String photoHash;
 
     private String photoContentType;
 
@@ -39,8 +39,8 @@ public class Doctor {
     public void setSpecialization(String specialization) { this.specialization = specialization; }
     public String getPasswordHash() { return passwordHash; }
     public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
-    public byte[] getPhoto() { return photo; }
-    public void setPhoto(byte[] photo) { this.photo = photo; }
+    public String getPhotoHash() { return photoHash; }
+    public void setPhotoHash(String photoHash) { this.photoHash = photoHash; }
     public String getPhotoContentType() { return photoContentType; }
     public void setPhotoContentType(String photoContentType) { this.photoContentType = photoContentType; }
 }
@@ -0,0 +1,30 @@
+package backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The legacy in-row photo of a {@link Doctor}, mapped on its own so loading a doctor never reads the LOB.
+ * DoctorPhotoMigration moves it to the PhotoStore and clears it; rows are only queried and cleared through
+ * this mapping, never inserted.
+ */
+@Entity
+@Table(name = "doctors")
+public class DoctorLegacyPhoto {
+    // Same column definition as Doctor.id, whichever mapping the schema is generated from
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Lob
+    private byte[] photo;
+
+    @Column(length = 64)
+    private String photoHash;
+
+    private String photoContentType;
+
+    public Long getId() { return id; }
+    public byte[] getPhoto() { return photo; }
+    public String getPhotoHash() { return photoHash; }
+    public String getPhotoContentType() { return photoContentType; }
+}
@@ -0,0 +1,27 @@
+package backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalTime;
+
+@Embeddable
+public class ScheduleBreak {
+    @Column(nullable = false)
+    private LocalTime breakStart;
+
+    @Column(nullable = false)
+    private LocalTime breakEnd;
+
+    public ScheduleBreak() {}
+
+    public ScheduleBreak(LocalTime breakStart, LocalTime breakEnd) {
+        this.breakStart = breakStart;
+        this.breakEnd = breakEnd;
+    }
+
+    public LocalTime getBreakStart() { return breakStart; }
+    public void setBreakStart(LocalTime breakStart) { this.breakStart = breakStart; }
+    public LocalTime getBreakEnd() { return breakEnd; }
+    public void setBreakEnd(LocalTime breakEnd) { this.breakEnd = breakEnd; }
+}
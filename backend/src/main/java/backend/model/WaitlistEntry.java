@@ -0,0 +1,45 @@
+package backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+// A patient waiting for any slot of a doctor on a date; served first come, first served
+@Entity
+@Table(name = "waitlist_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_waitlist_patient_day", columnNames = {"patient_id", "doctor_id", "date"})
+        },
+        indexes = {
+                @Index(name = "idx_waitlist_day", columnList = "doctor_id, date, created_at")
+        })
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    private Patient patient;
+
+    @ManyToOne(optional = false)
+    private Doctor doctor;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // Queue position; kept when an entry is put back after a failed promotion
+    @Column(nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Patient getPatient() { return patient; }
+    public void setPatient(Patient patient) { this.patient = patient; }
+    public Doctor getDoctor() { return doctor; }
+    public void setDoctor(Doctor doctor) { this.doctor = doctor; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+}
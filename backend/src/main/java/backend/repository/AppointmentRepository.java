@@ -1,19 +1,90 @@
 package backend.repository;
 
+import backend.dto.AppointmentRow;
+import backend.dto.AppointmentSlotRef;
+import backend.dto.DoctorAppointmentRow;
 import backend.model.Appointment;
 import backend.model.Doctor;
 import backend.model.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import backend.model.Appointment.Status;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     List<Appointment> findByDoctorAndDate(Doctor doctor, LocalDate date);
+    List<Appointment> findByDoctorAndDateBetween(Doctor doctor, LocalDate from, LocalDate to);
+    List<Appointment> findByDoctorIdInAndDateBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to);
+    List<Appointment> findByDoctorIdInAndDateIn(Collection<Long> doctorIds, Collection<LocalDate> dates);
     List<Appointment> findByDoctor(Doctor doctor);
     List<Appointment> findByPatient(Patient patient);
-    boolean existsByDoctorAndDateAndTime(Doctor doctor, LocalDate date, LocalTime time);
-    List<Appointment> findByStatus(Status status);
+
+    // Keyset page ordered by (date, time, id); a null filter or cursor part means "no constraint"
+    @Query("select new backend.dto.AppointmentRow(a.id, a.date, a.time, a.status, p.healthId, p.fullName, d.id, d.name, d.specialization) " +
+           "from Appointment a join a.patient p join a.doctor d " +
+           "where (:status is null or a.status = :status) " +
+           "and (:doctorId is null or d.id = :doctorId) " +
+           "and (:from is null or a.date >= :from) " +
+           "and (:to is null or a.date <= :to) " +
+           "and (:afterDate is null or a.date > :afterDate " +
+           "     or (a.date = :afterDate and (a.time > :afterTime or (a.time = :afterTime and a.id > :afterId)))) " +
+           "order by a.date, a.time, a.id")
+    List<AppointmentRow> findPage(@Param("status") Status status, @Param("doctorId") Long doctorId,
+                                  @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("afterDate") LocalDate afterDate, @Param("afterTime") LocalTime afterTime,
+                                  @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new backend.dto.AppointmentRow(a.id, a.date, a.time, a.status, p.healthId, p.fullName, d.id, d.name, d.specialization) " +
+           "from Appointment a join a.patient p join a.doctor d " +
+           "where (:status is null or a.status = :status) order by a.date, a.time, a.id")
+    List<AppointmentRow> findRows(@Param("status") Status status);
+
+    @Query("select new backend.dto.AppointmentRow(a.id, a.date, a.time, a.status, p.healthId, p.fullName, d.id, d.name, d.specialization) " +
+           "from Appointment a join a.patient p join a.doctor d " +
+           "where p.id = :patientId order by a.date desc, a.time desc")
+    List<AppointmentRow> findRowsByPatientId(@Param("patientId") Long patientId);
+
+    @Query("select new backend.dto.DoctorAppointmentRow(a.id, a.date, a.time, a.status, p.healthId, p.fullName) " +
+           "from Appointment a join a.patient p " +
+           "where a.doctor.id = :doctorId order by a.date, a.time")
+    List<DoctorAppointmentRow> findRowsByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Filters on status rather than slot_active so rows that predate the flag still show; (doctor_id, date) leads the slot index
+    @Query("select new backend.dto.DoctorAppointmentRow(a.id, a.date, a.time, a.status, p.healthId, p.fullName) " +
+           "from Appointment a join a.patient p " +
+           "where a.doctor.id = :doctorId and a.date between :from and :to and a.status not in :excluded " +
+           "order by a.date, a.time")
+    List<DoctorAppointmentRow> findAgenda(@Param("doctorId") Long doctorId, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("excluded") Collection<Status> excluded);
+
+    @Query("select new backend.dto.AppointmentSlotRef(a.id, a.status, a.doctor.id, a.date, a.time) " +
+           "from Appointment a where a.id in :ids")
+    List<AppointmentSlotRef> findSlotRefs(@Param("ids") Collection<Long> ids);
+
+    // Locks the listed rows still in one of the statuses until the caller's transaction ends
+    @Query(value = "select id from appointments where id in :ids and status in :statuses for update", nativeQuery = true)
+    List<Long> lockIdsInStatus(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<String> statuses);
+
+    // Set-based status changes; slot_active is set here because bulk updates bypass the entity callbacks
+    @Modifying
+    @Transactional
+    @Query("update Appointment a set a.status = :status, a.slotActive = true " +
+           "where a.id in :ids and a.status in :fromStatuses")
+    int bulkSetActiveStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                            @Param("fromStatuses") Collection<Status> fromStatuses);
+
+    @Modifying
+    @Transactional
+    @Query("update Appointment a set a.status = :status, a.slotActive = null " +
+           "where a.id in :ids and a.status in :fromStatuses")
+    int bulkSetInactiveStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                              @Param("fromStatuses") Collection<Status> fromStatuses);
 }
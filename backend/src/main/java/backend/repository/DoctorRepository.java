@@ -1,11 +1,35 @@
 package backend.repository;
 
+import backend.dto.PhotoRef;
 import backend.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsByEmail(String email);
     Optional<Doctor> findByEmail(String email);
+    List<Doctor> findBySpecializationContainingIgnoreCase(String specialization);
+
+    // Photo metadata only, so serving a photo never touches the legacy LOB column
+    @Query("select new backend.dto.PhotoRef(d.photoHash, d.photoContentType) from Doctor d where d.id = :id")
+    Optional<PhotoRef> findPhotoRef(@Param("id") Long id);
+
+    // A photo not yet moved to the PhotoStore, read as a scalar so no entity ever holds the LOB
+    @Query("select p.photo from DoctorLegacyPhoto p where p.id = :id")
+    Optional<byte[]> findLegacyPhoto(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update DoctorLegacyPhoto p set p.photo = null where p.id = :id and p.photo is not null")
+    int clearLegacyPhoto(@Param("id") Long id);
+
+    // Every photo file some doctor still points at
+    @Query("select distinct d.photoHash from Doctor d where d.photoHash is not null")
+    List<String> findPhotoHashes();
 }
@@ -0,0 +1,11 @@
+package backend.repository;
+
+import backend.model.DoctorSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long> {
+    List<DoctorSchedule> findByDoctorId(Long doctorId);
+    void deleteByDoctorId(Long doctorId);
+}
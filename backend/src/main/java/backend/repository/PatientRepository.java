@@ -1,8 +1,13 @@
 package backend.repository;
 
+import backend.dto.PatientSearchResult;
 import backend.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
@@ -10,4 +15,12 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByEmail(String email);
     boolean existsByHealthId(String healthId);
     Optional<Patient> findByHealthId(String healthId);
+    List<Patient> findByHealthIdIn(Collection<String> healthIds);
+
+    @Query("select p.id from Patient p where p.healthId = :healthId")
+    Optional<Long> findIdByHealthId(@Param("healthId") String healthId);
+
+    @Query("select new backend.dto.PatientSearchResult(p.id, p.healthId, p.fullName, p.email, p.phone) " +
+           "from Patient p where p.id in :ids")
+    List<PatientSearchResult> findSearchRows(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,36 @@
+package backend.repository;
+
+import backend.dto.WaitlistRow;
+import backend.model.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    List<WaitlistEntry> findTop20ByDoctorIdAndDateOrderByCreatedAtAscIdAsc(Long doctorId, LocalDate date);
+
+    @Query("select new backend.dto.WaitlistRow(w.id, w.date, w.createdAt, p.healthId, p.fullName) " +
+           "from WaitlistEntry w join w.patient p " +
+           "where w.doctor.id = :doctorId and w.date = :date order by w.createdAt, w.id")
+    List<WaitlistRow> findRows(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+
+    // 1-based place of an entry in its doctor/day queue (created_at, then id)
+    @Query("select count(w) from WaitlistEntry w where w.doctor.id = :doctorId and w.date = :date " +
+           "and (w.createdAt < :createdAt or (w.createdAt = :createdAt and w.id <= :id))")
+    long countUpTo(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                   @Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id);
+
+    boolean existsByPatientIdAndDoctorIdAndDate(Long patientId, Long doctorId, LocalDate date);
+
+    // Returns 1 only for the caller that actually removed the entry, so concurrent promotions cannot share a waiter
+    @Modifying
+    @Transactional
+    @Query("delete from WaitlistEntry w where w.id = :id")
+    int deleteEntry(@Param("id") Long id);
+}
@@ -0,0 +1,92 @@
+package backend.service;
+
+import backend.model.Appointment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Writes appointments as newline-delimited JSON straight from a forward-only cursor. Rows are read through a
+ * stateless session, so nothing accumulates in a persistence context, and only the exported columns are selected.
+ */
+@Service
+public class AppointmentExportService {
+    static final int FETCH_SIZE = 500;
+    // Flush often enough that clients see the first rows right away
+    private static final int FLUSH_EVERY = 100;
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper mapper;
+    private final int fetchSize;
+
+    @Autowired
+    public AppointmentExportService(EntityManagerFactory emf, ObjectMapper mapper) {
+        this(emf.unwrap(SessionFactory.class), mapper,
+                fetchSizeFor(emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()));
+    }
+
+    AppointmentExportService(SessionFactory sessionFactory, ObjectMapper mapper, int fetchSize) {
+        this.sessionFactory = sessionFactory;
+        this.mapper = mapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // MySQL Connector/J buffers the whole result set unless the fetch size is Integer.MIN_VALUE (row streaming)
+    static int fetchSizeFor(Dialect dialect) {
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    public void writeNdjson(Appointment.Status status, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+            // One object per line, newline-terminated, and the response stream is left to the container
+            json.setRootValueSeparator(null);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Query<Object[]> query = session.createQuery(
+                    "select a.id, a.date, a.time, a.status, p.healthId, p.fullName, d.id, d.name, d.specialization " +
+                    "from Appointment a join a.patient p join a.doctor d " +
+                    "where (:status is null or a.status = :status) " +
+                    "and (:from is null or a.date >= :from) " +
+                    "and (:to is null or a.date <= :to) " +
+                    "order by a.id", Object[].class);
+            query.setParameter("status", status);
+            query.setParameter("from", from);
+            query.setParameter("to", to);
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                int n = 0;
+                while (rows.next()) {
+                    Object[] r = rows.get();
+                    json.writeStartObject();
+                    json.writeNumberField("id", (Long) r[0]);
+                    json.writeStringField("date", r[1].toString());
+                    json.writeStringField("time", r[2].toString());
+                    json.writeStringField("status", r[3].toString());
+                    json.writeStringField("patientHealthId", (String) r[4]);
+                    json.writeStringField("patientName", (String) r[5]);
+                    json.writeNumberField("doctorId", (Long) r[6]);
+                    json.writeStringField("doctorName", (String) r[7]);
+                    json.writeStringField("specialization", (String) r[8]);
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    if (++n % FLUSH_EVERY == 1) json.flush();
+                }
+            }
+        }
+    }
+}
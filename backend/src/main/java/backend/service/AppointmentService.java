@@ -1,49 +1,192 @@
 package backend.service;
 
+import backend.dto.AppointmentPage;
+import backend.dto.AppointmentRow;
+import backend.dto.BatchBookingRequest;
+import backend.dto.AppointmentSlotRef;
+import backend.dto.BatchBookingResult;
+import backend.dto.BulkStatusResult;
+import backend.dto.DoctorAvailability;
+import backend.dto.FreeSlot;
+import backend.dto.SlotHold;
 import backend.model.Appointment;
 import backend.model.Doctor;
 import backend.model.Patient;
 import backend.repository.AppointmentRepository;
 import backend.repository.DoctorRepository;
-import backend.repository.PatientRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
+    static final int MAX_RANGE_DAYS = 62;
+    static final int MAX_LOOKAHEAD_DAYS = 180;
+    static final int MAX_NEXT_SLOTS = 50;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BULK_STATUS = 5000;
+    // Look-ahead is fetched in windows that grow from a week to four weeks, one range query per window
+    private static final int FIRST_WINDOW_DAYS = 7;
+    private static final int MAX_WINDOW_DAYS = 28;
+
     private final AppointmentRepository apptRepo;
     private final DoctorRepository doctorRepo;
-    private final PatientRepository patientRepo;
+    private final PatientResolver patientResolver;
+    private final SlotAvailabilityIndex slotIndex;
+    private final SlotHoldService slotHolds;
+    private final ApplicationEventPublisher events;
 
-    public AppointmentService(AppointmentRepository apptRepo, DoctorRepository doctorRepo, PatientRepository patientRepo) {
+    public AppointmentService(AppointmentRepository apptRepo, DoctorRepository doctorRepo, PatientResolver patientResolver,
+                              SlotAvailabilityIndex slotIndex, SlotHoldService slotHolds, ApplicationEventPublisher events) {
         this.apptRepo = apptRepo;
         this.doctorRepo = doctorRepo;
-        this.patientRepo = patientRepo;
+        this.patientResolver = patientResolver;
+        this.slotIndex = slotIndex;
+        this.slotHolds = slotHolds;
+        this.events = events;
     }
 
     public List<LocalTime> availableSlots(Long doctorId, LocalDate date) {
-        Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
-        List<Appointment> day = apptRepo.findByDoctorAndDate(doctor, date);
-        // Simple 9:00-17:00 30-min slots
-        List<LocalTime> slots = new ArrayList<>();
-        for(LocalTime t = LocalTime.of(9,0); t.isBefore(LocalTime.of(17,0)); t = t.plusMinutes(30)) {
-            LocalTime finalT = t;
-            boolean taken = day.stream().anyMatch(a -> a.getTime().equals(finalT) && a.getStatus() != Appointment.Status.REJECTED && a.getStatus() != Appointment.Status.CANCELLED);
-            if(!taken) slots.add(t);
-        }
+        // Slots of the doctor's weekly template, answered from the occupancy bitmap once the day is cached
+        long occupied = slotIndex.occupancy(doctorId, date, () -> {
+            Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+            return apptRepo.findByDoctorAndDate(doctor, date);
+        });
+        return slotIndex.freeSlots(doctorId, date, occupied);
+    }
+
+    // Free slots for each day in [from, to], backed by at most one range query
+    public Map<LocalDate, List<LocalTime>> availableSlotsRange(Long doctorId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        Map<LocalDate, Long> occupied = slotIndex.occupancyRange(doctorId, from, to, () -> {
+            Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+            return apptRepo.findByDoctorAndDateBetween(doctor, from, to);
+        });
+        Map<LocalDate, List<LocalTime>> slots = new LinkedHashMap<>();
+        occupied.forEach((d, bits) -> slots.put(d, slotIndex.freeSlots(doctorId, d, bits)));
         return slots;
     }
 
+    // Free slots of every doctor matching the specialization, earliest availability first
+    public List<DoctorAvailability> availableSlotsBySpecialization(String specialization, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<Doctor> doctors = doctorRepo.findBySpecializationContainingIgnoreCase(specialization);
+        if (doctors.isEmpty()) return List.of();
+        List<Long> ids = doctors.stream().map(Doctor::getId).toList();
+        Map<Long, Map<LocalDate, Long>> occupied = slotIndex.occupancyRange(ids, from, to,
+                missing -> apptRepo.findByDoctorIdInAndDateBetween(missing, from, to));
+        List<DoctorAvailability> result = new ArrayList<>(doctors.size());
+        for (Doctor d : doctors) {
+            Map<LocalDate, List<LocalTime>> slots = new LinkedHashMap<>();
+            LocalDateTime earliest = null;
+            for (Map.Entry<LocalDate, Long> e : occupied.get(d.getId()).entrySet()) {
+                List<LocalTime> free = slotIndex.freeSlots(d.getId(), e.getKey(), e.getValue());
+                slots.put(e.getKey(), free);
+                if (earliest == null && !free.isEmpty()) earliest = e.getKey().atTime(free.get(0));
+            }
+            result.add(new DoctorAvailability(d.getId(), d.getName(), d.getSpecialization(), earliest, slots));
+        }
+        result.sort(Comparator.comparing((DoctorAvailability a) -> a.earliest, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Earliest {@code count} free slots at or after {@code after} for one doctor, or for every doctor
+     * matching {@code specialization}. Stops at the first window that fills the request and never looks
+     * further than {@code lookaheadDays} ahead.
+     */
+    public List<FreeSlot> nextAvailable(Long doctorId, String specialization, LocalDateTime after, int count, int lookaheadDays) {
+        if (count < 1 || count > MAX_NEXT_SLOTS) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_NEXT_SLOTS);
+        }
+        if (lookaheadDays < 1 || lookaheadDays > MAX_LOOKAHEAD_DAYS) {
+            throw new IllegalArgumentException("lookaheadDays must be between 1 and " + MAX_LOOKAHEAD_DAYS);
+        }
+        List<Doctor> doctors;
+        if (doctorId != null) {
+            doctors = List.of(doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found")));
+        } else if (specialization != null && !specialization.isBlank()) {
+            doctors = doctorRepo.findBySpecializationContainingIgnoreCase(specialization);
+        } else {
+            throw new IllegalArgumentException("doctorId or specialization is required");
+        }
+        List<FreeSlot> result = new ArrayList<>(count);
+        if (doctors.isEmpty()) return result;
+
+        List<Long> ids = doctors.stream().map(Doctor::getId).toList();
+        LocalDate startDate = after.toLocalDate();
+        LocalTime startTime = after.toLocalTime();
+        LocalDate last = startDate.plusDays(lookaheadDays - 1L);
+        int window = FIRST_WINDOW_DAYS;
+        for (LocalDate from = startDate; !from.isAfter(last); from = from.plusDays(window), window = Math.min(window * 2, MAX_WINDOW_DAYS)) {
+            LocalDate windowFrom = from;
+            LocalDate to = from.plusDays(window - 1L).isAfter(last) ? last : from.plusDays(window - 1L);
+            Map<Long, Map<LocalDate, Long>> occupied = slotIndex.occupancyRange(ids, windowFrom, to,
+                    missing -> apptRepo.findByDoctorIdInAndDateBetween(missing, windowFrom, to));
+            for (LocalDate d = windowFrom; !d.isAfter(to); d = d.plusDays(1)) {
+                List<FreeSlot> day = new ArrayList<>();
+                for (Doctor doctor : doctors) {
+                    for (LocalTime t : slotIndex.freeSlots(doctor.getId(), d, occupied.get(doctor.getId()).get(d))) {
+                        if (d.equals(startDate) && t.isBefore(startTime)) continue;
+                        day.add(new FreeSlot(doctor.getId(), doctor.getName(), d, t));
+                    }
+                }
+                day.sort(Comparator.comparing((FreeSlot f) -> f.time).thenComparing(f -> f.doctorId));
+                for (FreeSlot f : day) {
+                    result.add(f);
+                    if (result.size() == count) return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Holds a slot while the patient confirms; held slots show as taken until booked, released or expired
+    public SlotHold hold(String patientHealthId, Long doctorId, LocalDate date, LocalTime time) {
+        patientResolver.resolveId(patientHealthId);
+        Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        return slotHolds.place(patientHealthId, doctorId, date, time, () -> apptRepo.findByDoctorAndDate(doctor, date));
+    }
+
+    public void releaseHold(String token) {
+        slotHolds.release(token);
+    }
+
     public Appointment book(String patientHealthId, Long doctorId, LocalDate date, LocalTime time) {
-        Patient patient = patientRepo.findAll().stream().filter(p->patientHealthId.equals(p.getHealthId())).findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        return book(patientHealthId, doctorId, date, time, null);
+    }
+
+    // A matching, unexpired hold token books the held slot; otherwise the slot must be free
+    public Appointment book(String patientHealthId, Long doctorId, LocalDate date, LocalTime time, String holdToken) {
+        Patient patient = patientResolver.resolve(patientHealthId);
         Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
-        if (apptRepo.existsByDoctorAndDateAndTime(doctor, date, time)) {
-            throw new IllegalArgumentException("Slot already booked");
+        if (holdToken == null || !slotHolds.consume(holdToken, patientHealthId, doctorId, date, time)) {
+            claimSlot(doctor, date, time);
         }
         Appointment a = new Appointment();
         a.setPatient(patient);
@@ -51,13 +194,108 @@ public class AppointmentService {
         a.setDate(date);
         a.setTime(time);
         a.setStatus(Appointment.Status.PENDING);
-        return apptRepo.save(a);
+        return saveClaimed(a);
+    }
+
+    /**
+     * Books many appointments at once. Patients and doctors are resolved with one query each, items dated in
+     * the past or more than {@link #MAX_LOOKAHEAD_DAYS} days ahead are rejected, the occupancy of the remaining
+     * doctor/days is loaded with one query, and the accepted bookings are inserted with {@code saveAll} so
+     * Hibernate can batch them. Each item gets its own outcome; two items for the same slot resolve to one
+     * booking and one conflict.
+     */
+    public List<BatchBookingResult> bookBatch(List<BatchBookingRequest> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " bookings per batch");
+        }
+        Map<String, Patient> patients = new HashMap<>();
+        patientResolver.resolveAll(items.stream().map(i -> i.healthId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .forEach(p -> patients.put(p.getHealthId(), p));
+        Map<Long, Doctor> doctors = new HashMap<>();
+        doctorRepo.findAllById(items.stream().map(i -> i.doctorId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .forEach(d -> doctors.put(d.getId(), d));
+
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(MAX_LOOKAHEAD_DAYS);
+        BatchBookingResult[] results = new BatchBookingResult[items.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchBookingRequest item = items.get(i);
+            String error = item.date == null || item.time == null ? "Date and time are required"
+                    : !patients.containsKey(item.healthId) ? "Patient not found"
+                    : !doctors.containsKey(item.doctorId) ? "Doctor not found"
+                    : item.date.isBefore(today) || item.date.isAfter(lastDay) ? "Date is outside the booking horizon"
+                    : !slotIndex.isBookable(item.doctorId, item.date, item.time) ? "Time is not a bookable slot"
+                    : null;
+            if (error != null) results[i] = new BatchBookingResult(i, BatchBookingResult.Outcome.INVALID, null, error);
+            else valid.add(i);
+        }
+        preloadOccupancy(valid.stream().map(items::get).toList());
+
+        List<Integer> claimedIdx = new ArrayList<>();
+        List<Appointment> claimed = new ArrayList<>();
+        for (int i : valid) {
+            BatchBookingRequest item = items.get(i);
+            Doctor doctor = doctors.get(item.doctorId);
+            if (!slotIndex.claim(doctor.getId(), item.date, item.time, () -> apptRepo.findByDoctorAndDate(doctor, item.date))) {
+                results[i] = new BatchBookingResult(i, BatchBookingResult.Outcome.CONFLICT, null, "Slot already booked");
+                continue;
+            }
+            Appointment a = new Appointment();
+            a.setPatient(patients.get(item.healthId));
+            a.setDoctor(doctor);
+            a.setDate(item.date);
+            a.setTime(item.time);
+            a.setStatus(Appointment.Status.PENDING);
+            claimedIdx.add(i);
+            claimed.add(a);
+        }
+
+        List<Appointment> saved;
+        try {
+            saved = apptRepo.saveAll(claimed);
+        } catch (DataIntegrityViolationException e) {
+            // A slot was taken by another instance; the batch rolled back, so save item by item to find it
+            claimed.forEach(a -> a.setId(null));
+            saved = new ArrayList<>(claimed.size());
+            try {
+                for (Appointment a : claimed) {
+                    try {
+                        saved.add(saveClaimed(a));
+                    } catch (IllegalArgumentException conflict) {
+                        saved.add(null);
+                    }
+                }
+            } catch (RuntimeException failure) {
+                // saveClaimed freed the failing item's slot; free the claims the loop never reached
+                claimed.subList(saved.size() + 1, claimed.size())
+                        .forEach(a -> slotIndex.release(a.getDoctor().getId(), a.getDate(), a.getTime()));
+                throw failure;
+            }
+        } catch (RuntimeException e) {
+            claimed.forEach(a -> slotIndex.release(a.getDoctor().getId(), a.getDate(), a.getTime()));
+            throw e;
+        }
+        for (int k = 0; k < claimedIdx.size(); k++) {
+            int i = claimedIdx.get(k);
+            Appointment a = saved.get(k);
+            results[i] = a != null
+                    ? new BatchBookingResult(i, BatchBookingResult.Outcome.BOOKED, a.getId(), null)
+                    : new BatchBookingResult(i, BatchBookingResult.Outcome.CONFLICT, null, "Slot already booked");
+        }
+        return Arrays.asList(results);
     }
 
-    public List<Appointment> byPatient(String patientHealthId) {
-        Patient patient = patientRepo.findAll().stream().filter(p->patientHealthId.equals(p.getHealthId())).findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
-        return apptRepo.findByPatient(patient);
+    // Loads occupancy for exactly the doctors/days the batch touches, with one query over their ids and dates
+    private void preloadOccupancy(List<BatchBookingRequest> items) {
+        if (items.isEmpty()) return;
+        Map<Long, Set<LocalDate>> datesByDoctor = items.stream().collect(Collectors.groupingBy(
+                i -> i.doctorId, Collectors.mapping(i -> i.date, Collectors.toSet())));
+        slotIndex.preload(datesByDoctor, apptRepo::findByDoctorIdInAndDateIn);
+    }
+
+    public List<AppointmentRow> byPatient(String patientHealthId) {
+        return apptRepo.findRowsByPatientId(patientResolver.resolveId(patientHealthId));
     }
 
     public Appointment updatePatientAppointment(Long id, LocalDate date, LocalTime time) {
@@ -65,24 +303,185 @@ public class AppointmentService {
         if (a.getStatus() == Appointment.Status.CONFIRMED) {
             throw new IllegalArgumentException("Cannot change a confirmed appointment");
         }
-        if (date != null) a.setDate(date);
-        if (time != null) a.setTime(time);
+        LocalDate oldDate = a.getDate();
+        LocalTime oldTime = a.getTime();
+        boolean wasActive = SlotAvailabilityIndex.isActive(a.getStatus());
+        LocalDate newDate = date != null ? date : oldDate;
+        LocalTime newTime = time != null ? time : oldTime;
+        boolean moved = !newDate.equals(oldDate) || !newTime.equals(oldTime);
+        boolean claimed = moved || !wasActive;
+        if (claimed) claimSlot(a.getDoctor(), newDate, newTime);
+        a.setDate(newDate);
+        a.setTime(newTime);
         a.setStatus(Appointment.Status.PENDING);
-        return apptRepo.save(a);
+        Appointment saved = claimed ? saveClaimed(a) : apptRepo.save(a);
+        if (moved && wasActive) slotIndex.release(a.getDoctor().getId(), oldDate, oldTime);
+        return saved;
     }
 
     public Appointment cancel(Long id) {
-        Appointment a = apptRepo.findById(id).orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
-        a.setStatus(Appointment.Status.CANCELLED);
-        return apptRepo.save(a);
+        return setStatus(id, Appointment.Status.CANCELLED);
     }
 
     public Appointment setStatus(Long id, Appointment.Status status) {
         Appointment a = apptRepo.findById(id).orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+        boolean wasActive = SlotAvailabilityIndex.isActive(a.getStatus());
+        boolean active = SlotAvailabilityIndex.isActive(status);
+        if (!wasActive && active) {
+            // Reviving a cancelled/rejected appointment needs its slot back
+            claimSlot(a.getDoctor(), a.getDate(), a.getTime());
+            a.setStatus(status);
+            return saveClaimed(a);
+        }
         a.setStatus(status);
-        return apptRepo.save(a);
+        Appointment saved = apptRepo.save(a);
+        if (wasActive && !active && a.getDoctor() != null) {
+            slotIndex.release(a.getDoctor().getId(), a.getDate(), a.getTime());
+            // Hand the slot to the waitlist; the listener runs asynchronously
+            events.publishEvent(new SlotFreedEvent(a.getDoctor().getId(), a.getDate(), a.getTime()));
+        }
+        return saved;
+    }
+
+    /**
+     * Moves many appointments to {@code status} with one set-based UPDATE and reports an outcome per id.
+     * Only PENDING and CONFIRMED appointments take part, so a bulk call never revives a cancelled or rejected
+     * slot. The rows are locked before the update, so only slots this call freed are released in the index and
+     * offered to the waitlist, as with {@link #setStatus}, once the change commits.
+     */
+    @Transactional
+    public List<BulkStatusResult> bulkSetStatus(List<Long> ids, Appointment.Status status) {
+        if (status == null) throw new IllegalArgumentException("status is required");
+        if (ids == null || ids.isEmpty()) return List.of();
+        if (ids.size() > MAX_BULK_STATUS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS + " appointments per request");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException("ids must not contain null");
+        Map<Long, AppointmentSlotRef> current = new HashMap<>();
+        apptRepo.findSlotRefs(new HashSet<>(ids)).forEach(r -> current.put(r.id, r));
+        Set<Long> eligible = new LinkedHashSet<>();
+        for (Long id : ids) {
+            AppointmentSlotRef r = current.get(id);
+            if (r != null && r.status != status && SlotAvailabilityIndex.isActive(r.status)) eligible.add(id);
+        }
+
+        Set<Long> updated = new HashSet<>();
+        if (!eligible.isEmpty()) {
+            List<Appointment.Status> from = Arrays.stream(Appointment.Status.values())
+                    .filter(s -> s != status && SlotAvailabilityIndex.isActive(s))
+                    .toList();
+            // Rows another request moved in the meantime are not locked, so the update changes exactly these
+            updated.addAll(apptRepo.lockIdsInStatus(eligible, from.stream().map(Enum::name).toList()));
+            boolean active = SlotAvailabilityIndex.isActive(status);
+            if (!updated.isEmpty()) {
+                if (active) apptRepo.bulkSetActiveStatus(updated, status, from);
+                else apptRepo.bulkSetInactiveStatus(updated, status, from);
+            }
+            if (!active && !updated.isEmpty()) {
+                List<AppointmentSlotRef> freed = updated.stream().map(current::get).toList();
+                // Free the slots once the change is visible, so a promoted waiter does not hit the old row
+                afterCommit(() -> freed.forEach(r -> {
+                    slotIndex.release(r.doctorId, r.date, r.time);
+                    events.publishEvent(new SlotFreedEvent(r.doctorId, r.date, r.time));
+                }));
+            }
+        }
+
+        List<BulkStatusResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AppointmentSlotRef r = current.get(id);
+            if (r == null) {
+                results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.NOT_FOUND, "Appointment not found"));
+            } else if (updated.contains(id)) {
+                results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.UPDATED, null));
+            } else if (r.status == status) {
+                results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.UNCHANGED, null));
+            } else if (!SlotAvailabilityIndex.isActive(r.status)) {
+                results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.INVALID, "Appointment is " + r.status));
+            } else {
+                results.add(new BulkStatusResult(id, BulkStatusResult.Outcome.INVALID, "Appointment was changed by another request"));
+            }
+        }
+        return results;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("'to' must not be before 'from'");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    // Takes the slot in the occupancy bitmap; concurrent claims for the same doctor/day are serialized there
+    private void claimSlot(Doctor doctor, LocalDate date, LocalTime time) {
+        if (!slotIndex.isBookable(doctor.getId(), date, time)) {
+            throw new IllegalArgumentException("Time is not a bookable slot");
+        }
+        if (!slotIndex.claim(doctor.getId(), date, time, () -> apptRepo.findByDoctorAndDate(doctor, date))) {
+            throw new IllegalArgumentException("Slot already booked");
+        }
+    }
+
+    // Persists an appointment whose slot was claimed; the unique slot index is the final guard across instances
+    private Appointment saveClaimed(Appointment a) {
+        try {
+            return apptRepo.save(a);
+        } catch (DataIntegrityViolationException e) {
+            // The slot is held by a row this instance has not seen, so keep it marked as taken
+            throw new IllegalArgumentException("Slot already booked");
+        } catch (RuntimeException e) {
+            slotIndex.release(a.getDoctor().getId(), a.getDate(), a.getTime());
+            throw e;
+        }
+    }
+
+    /**
+     * One page of appointments in (date, time, id) order. {@code cursor} is the opaque token from the previous
+     * page; the query seeks past it instead of using an offset, so deep pages cost the same as the first one.
+     */
+    public AppointmentPage listPage(Appointment.Status status, Long doctorId, LocalDate from, LocalDate to,
+                                    String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        LocalDate afterDate = null;
+        LocalTime afterTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterDate = LocalDate.parse(parts[0]);
+                afterTime = LocalTime.parse(parts[1]);
+                afterId = Long.valueOf(parts[2]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        // One extra row tells whether there is a next page without a count query
+        List<AppointmentRow> rows = apptRepo.findPage(status, doctorId, from, to, afterDate, afterTime, afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) return new AppointmentPage(rows, null);
+        List<AppointmentRow> items = new ArrayList<>(rows.subList(0, limit));
+        AppointmentRow last = items.get(limit - 1);
+        String next = last.date + "|" + last.time + "|" + last.id;
+        return new AppointmentPage(items, Base64.getUrlEncoder().withoutPadding().encodeToString(next.getBytes(StandardCharsets.UTF_8)));
     }
 
-    public List<Appointment> listAll() { return apptRepo.findAll(); }
-    public List<Appointment> listByStatus(Appointment.Status status) { return apptRepo.findByStatus(status); }
+    // Whole table as compact rows (optionally one status), for the explicit unpaginated admin listing
+    public List<AppointmentRow> listAllRows(Appointment.Status status) { return apptRepo.findRows(status); }
 }
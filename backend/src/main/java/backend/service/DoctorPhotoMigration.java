@@ -0,0 +1,124 @@
+package backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.util.List;
+
+/**
+ * Moves photos still held in {@code doctors.photo} into the {@link PhotoStore}. Rows are taken in id order a batch
+ * at a time; each LOB is read on its own, written to the store, and its row switched to the hash, with the content
+ * type sniffed from the bytes and the LOB cleared, one transaction per batch. Only rows that still have a LOB are touched, so re-running it is safe.
+ * A photo that cannot be written to the store is logged and skipped, and stays in the database; a database error
+ * rolls back the current batch and ends the run.
+ * Runs on "photoMigrationExecutor" once the application is ready (unless
+ * {@code doctors.photos.migrate-on-startup=false}), so startup does not wait for it, and on demand from
+ * /actuator/doctorphotos.
+ */
+@Component
+public class DoctorPhotoMigration {
+    private static final Logger log = LoggerFactory.getLogger(DoctorPhotoMigration.class);
+
+    public record Stats(long remaining, long moved, long skipped) {}
+
+    private final SessionFactory sessionFactory;
+    private final PhotoStore store;
+    private final int batchSize;
+    private final boolean onStartup;
+    private volatile long moved;
+    private volatile long skipped;
+
+    public DoctorPhotoMigration(EntityManagerFactory emf, PhotoStore store,
+                                @Value("${doctors.photos.migration-batch-size:50}") int batchSize,
+                                @Value("${doctors.photos.migrate-on-startup:true}") boolean onStartup) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.store = store;
+        this.batchSize = batchSize;
+        this.onStartup = onStartup;
+    }
+
+    @Async("photoMigrationExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!onStartup) return;
+        try {
+            int count = migrate();
+            if (count > 0) log.info("Moved {} doctor photos to the photo store", count);
+        } catch (RuntimeException e) {
+            log.error("Doctor photo migration stopped; the remaining photos are still served from the database", e);
+        }
+    }
+
+    /** Returns how many photos this run moved. */
+    public synchronized int migrate() {
+        int count = 0;
+        long after = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            while (true) {
+                List<Long> ids = session.createQuery(
+                                "select d.id from DoctorLegacyPhoto d where d.photo is not null and d.id > :after order by d.id", Long.class)
+                        .setParameter("after", after)
+                        .setMaxResults(batchSize)
+                        .getResultList();
+                if (ids.isEmpty()) break;
+                Transaction tx = session.beginTransaction();
+                try {
+                    for (Long id : ids) {
+                        try {
+                            if (moveOne(session, id)) count++;
+                        } catch (IOException e) {
+                            skipped++;
+                            log.warn("Could not store the photo of doctor {}; leaving it in the database", id, e);
+                        }
+                    }
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    tx.rollback();
+                    throw e;
+                }
+                after = ids.get(ids.size() - 1);
+            }
+        }
+        moved += count;
+        return count;
+    }
+
+    public Stats stats() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            long remaining = session.createQuery("select count(d) from DoctorLegacyPhoto d where d.photo is not null", Long.class)
+                    .getSingleResult();
+            return new Stats(remaining, moved, skipped);
+        }
+    }
+
+    private boolean moveOne(StatelessSession session, Long id) throws IOException {
+        byte[] bytes = session.createQuery("select d.photo from DoctorLegacyPhoto d where d.id = :id", byte[].class)
+                .setParameter("id", id)
+                .getSingleResult();
+        if (bytes == null) return false;
+        String hash = store.put(bytes);
+        // Null when the bytes are not a recognised image; the row keeps whatever type it had then
+        String contentType = URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(bytes));
+        // A photo uploaded meanwhile has already cleared the LOB; leave that row alone
+        return session.createMutationQuery(
+                        "update DoctorLegacyPhoto d set d.photoHash = :hash, " +
+                        "d.photoContentType = coalesce(:contentType, d.photoContentType), d.photo = null " +
+                        "where d.id = :id and d.photo is not null")
+                .setParameter("hash", hash)
+                .setParameter("contentType", contentType)
+                .setParameter("id", id)
+                .executeUpdate() == 1;
+    }
+}
@@ -0,0 +1,107 @@
+package backend.service;
+
+import backend.model.Doctor;
+import backend.model.DoctorSchedule;
+import backend.model.ScheduleBreak;
+import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class DoctorScheduleService {
+    private final DoctorScheduleRepository scheduleRepo;
+    private final DoctorRepository doctorRepo;
+    private final SlotTemplates templates;
+    private final SlotAvailabilityIndex slotIndex;
+
+    public DoctorScheduleService(DoctorScheduleRepository scheduleRepo, DoctorRepository doctorRepo,
+                                 SlotTemplates templates, SlotAvailabilityIndex slotIndex) {
+        this.scheduleRepo = scheduleRepo;
+        this.doctorRepo = doctorRepo;
+        this.templates = templates;
+        this.slotIndex = slotIndex;
+    }
+
+    public List<DoctorSchedule> get(Long doctorId) {
+        return scheduleRepo.findByDoctorId(doctorId).stream()
+                .sorted(Comparator.comparing(DoctorSchedule::getDayOfWeek))
+                .toList();
+    }
+
+    /**
+     * Replaces the doctor's weekly schedule. An empty list restores the default grid. Each weekday may appear
+     * once, and its breaks must lie within its hours without overlapping. Existing appointments are kept even
+     * if they no longer fall on a slot of the new schedule.
+     */
+    @Transactional
+    public List<DoctorSchedule> replace(Long doctorId, List<DoctorSchedule> days) {
+        Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        Set<DayOfWeek> seen = EnumSet.noneOf(DayOfWeek.class);
+        for (DoctorSchedule day : days) {
+            if (day.getDayOfWeek() == null || day.getStartTime() == null || day.getEndTime() == null) {
+                throw new IllegalArgumentException("Day, start time and end time are required");
+            }
+            if (!seen.add(day.getDayOfWeek())) {
+                throw new IllegalArgumentException("Duplicate schedule for " + day.getDayOfWeek());
+            }
+            validateBreaks(day);
+            day.setId(null);
+            day.setDoctor(doctor);
+        }
+        // Compiling validates slot length, hours and the per-day slot limit before anything is written
+        SlotTemplates.compile(days);
+
+        scheduleRepo.deleteByDoctorId(doctorId);
+        scheduleRepo.flush();
+        List<DoctorSchedule> saved = scheduleRepo.saveAll(days);
+        // Drop compiled templates once the new rows are visible, so no reader recompiles the old schedule
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(doctorId);
+                }
+            });
+        } else {
+            invalidate(doctorId);
+        }
+        return saved.stream().sorted(Comparator.comparing(DoctorSchedule::getDayOfWeek)).toList();
+    }
+
+    // Breaks must sit inside the working hours and must not overlap each other
+    private static void validateBreaks(DoctorSchedule day) {
+        List<ScheduleBreak> breaks = new ArrayList<>(day.getBreaks());
+        for (ScheduleBreak b : breaks) {
+            if (b.getBreakStart() == null || b.getBreakEnd() == null) {
+                throw new IllegalArgumentException("Break start and end are required");
+            }
+            if (!b.getBreakStart().isBefore(b.getBreakEnd())) {
+                throw new IllegalArgumentException("Break start must be before break end");
+            }
+            if (b.getBreakStart().isBefore(day.getStartTime()) || b.getBreakEnd().isAfter(day.getEndTime())) {
+                throw new IllegalArgumentException("Breaks must fall within working hours on " + day.getDayOfWeek());
+            }
+        }
+        breaks.sort(Comparator.comparing(ScheduleBreak::getBreakStart));
+        for (int i = 1; i < breaks.size(); i++) {
+            if (breaks.get(i).getBreakStart().isBefore(breaks.get(i - 1).getBreakEnd())) {
+                throw new IllegalArgumentException("Breaks overlap on " + day.getDayOfWeek());
+            }
+        }
+    }
+
+    private void invalidate(Long doctorId) {
+        templates.invalidate(doctorId);
+        slotIndex.evictDoctor(doctorId);
+    }
+}
@@ -1,26 +1,47 @@
 package backend.service;
 
+import backend.dto.DoctorAppointmentRow;
+import backend.dto.PhotoRef;
 import backend.model.Doctor;
 import backend.model.Appointment;
 import backend.repository.DoctorRepository;
 import backend.repository.AppointmentRepository;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Service
 public class DoctorService {
+    static final int MAX_AGENDA_DAYS = 31;
+    // Files younger than this are kept by the sweep: their upload may not have saved its doctor yet
+    static final Duration SWEEP_GRACE = Duration.ofHours(1);
+
     private final DoctorRepository repository;
     private final AppointmentRepository apptRepo;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    private final PhotoStore photoStore;
+
+    /** A doctor's photo; etag is null for photos not yet moved out of the doctors table. */
+    public record Photo(Resource body, String contentType, String etag) {}
 
-    public DoctorService(DoctorRepository repository, AppointmentRepository apptRepo) {
+    public DoctorService(DoctorRepository repository, AppointmentRepository apptRepo, PasswordHasher passwordHasher,
+                         PhotoStore photoStore) {
         this.repository = repository;
         this.apptRepo = apptRepo;
+        this.passwordHasher = passwordHasher;
+        this.photoStore = photoStore;
     }
 
     public Doctor create(String name, String email, String specialization, MultipartFile photo) throws IOException {
@@ -32,8 +53,7 @@ public class DoctorService {
         d.setEmail(email);
         d.setSpecialization(specialization);
         if (photo != null && !photo.isEmpty()) {
-            d.setPhoto(photo.getBytes());
-            d.setPhotoContentType(photo.getContentType());
+            storePhoto(d, photo);
         }
         return repository.save(d);
     }
@@ -56,14 +76,39 @@ public class DoctorService {
         if (specialization != null) d.setSpecialization(specialization);
         if (photo != null) {
             if (!photo.isEmpty()) {
-                d.setPhoto(photo.getBytes());
-                d.setPhotoContentType(photo.getContentType());
+                storePhoto(d, photo);
             } else {
-                d.setPhoto(null);
+                d.setPhotoHash(null);
                 d.setPhotoContentType(null);
             }
         }
-        return repository.save(d);
+        Doctor saved = repository.save(d);
+        // Cleared after the new photo is saved, so the doctor always has one of the two
+        if (photo != null) repository.clearLegacyPhoto(id);
+        return saved;
+    }
+
+    // Files are shared by identical uploads, so a replaced photo's file is left for sweepPhotos()
+    private void storePhoto(Doctor d, MultipartFile photo) throws IOException {
+        try (InputStream in = photo.getInputStream()) {
+            d.setPhotoHash(photoStore.put(in));
+        }
+        d.setPhotoContentType(photo.getContentType());
+    }
+
+    public Optional<Photo> photo(Long id) {
+        PhotoRef ref = repository.findPhotoRef(id).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        if (ref.hash != null) {
+            if (!photoStore.exists(ref.hash)) return Optional.empty();
+            return Optional.of(new Photo(new FileSystemResource(photoStore.path(ref.hash)), ref.contentType, "\"" + ref.hash + "\""));
+        }
+        // Not migrated yet: still in the row
+        return repository.findLegacyPhoto(id).map(legacy -> new Photo(new ByteArrayResource(legacy), ref.contentType, null));
+    }
+
+    /** Deletes photo files no doctor refers to any more; returns how many were removed. */
+    public int sweepPhotos() throws IOException {
+        return photoStore.sweep(new HashSet<>(repository.findPhotoHashes()), Instant.now().minus(SWEEP_GRACE));
     }
 
     public void delete(Long id) {
@@ -72,7 +117,7 @@ public class DoctorService {
 
     public void setPassword(Long doctorId, String rawPassword) {
         Doctor d = get(doctorId);
-        d.setPasswordHash(passwordEncoder.encode(rawPassword));
+        d.setPasswordHash(passwordHasher.encode(rawPassword));
         repository.save(d);
     }
 
@@ -80,9 +125,13 @@ public class DoctorService {
         Optional<Doctor> opt = repository.findByEmail(email);
         if (opt.isEmpty()) throw new IllegalArgumentException("Invalid credentials");
         Doctor d = opt.get();
-        if (d.getPasswordHash()==null || !passwordEncoder.matches(password, d.getPasswordHash())) {
+        if (d.getPasswordHash()==null || !passwordHasher.matches(password, d.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
+        if (passwordHasher.needsRehash(d.getPasswordHash())) {
+            d.setPasswordHash(passwordHasher.encode(password));
+            repository.save(d);
+        }
         // return safe copy
         Doctor copy = new Doctor();
         copy.setId(d.getId());
@@ -92,8 +141,19 @@ public class DoctorService {
         return copy;
     }
 
-    public List<Appointment> appointmentsByDoctor(Long doctorId) {
-        Doctor d = get(doctorId);
-        return apptRepo.findByDoctor(d);
+    // Compact rows for the doctor's appointment list, without loading the doctor or full patient entities
+    public List<DoctorAppointmentRow> appointmentRowsByDoctor(Long doctorId) {
+        if (!repository.existsById(doctorId)) throw new IllegalArgumentException("Doctor not found");
+        return apptRepo.findRowsByDoctorId(doctorId);
+    }
+
+    // Booked (not cancelled/rejected) appointments in [from, to], in date and time order
+    public List<DoctorAppointmentRow> agenda(Long doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("'to' must not be before 'from'");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AGENDA_DAYS) {
+            throw new IllegalArgumentException("Agenda range is limited to " + MAX_AGENDA_DAYS + " days");
+        }
+        if (!repository.existsById(doctorId)) throw new IllegalArgumentException("Doctor not found");
+        return apptRepo.findAgenda(doctorId, from, to, List.of(Appointment.Status.CANCELLED, Appointment.Status.REJECTED));
     }
 }
@@ -0,0 +1,8 @@
+package backend.service;
+
+/** Valid session token whose role may not call the endpoint; mapped to 403. */
+public class ForbiddenException extends RuntimeException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,110 @@
+package backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues 12-character health IDs that are unique by construction, so registration needs no existence probe.
+ * <p>
+ * The first 11 characters are Crockford base32 of a 55-bit value: a marker bit, seconds since 2025-01-01
+ * (31 bits), the node id (10 bits) and a per-second sequence (13 bits). The marker bit keeps the first
+ * character in G..Z, which never occurs in the older hex IDs, so new and legacy IDs cannot collide. The last
+ * character is a Luhn mod 32 check digit that catches single typos and most swapped neighbours.
+ * <p>
+ * IDs are unique across instances as long as every instance runs with its own {@code patients.health-id.node}.
+ * Without it the node is derived from host and process, which can clash; registration then retries once with
+ * a fresh ID when the unique health_id index rejects the insert.
+ */
+@Component
+public class HealthIdGenerator {
+    public static final int LENGTH = 12;
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 13;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final long EPOCH_SECOND = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    private static final long MARKER = 1L << 54;
+
+    private final int node;
+    private final LongSupplier clockMillis;
+    private long lastSecond = -1;
+    private int sequence;
+
+    public HealthIdGenerator(@Value("${patients.health-id.node:-1}") int node) {
+        this(node < 0 ? defaultNode() : node, System::currentTimeMillis);
+    }
+
+    HealthIdGenerator(int node, LongSupplier clockMillis) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Health ID node must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+        this.clockMillis = clockMillis;
+    }
+
+    public String next() {
+        long second;
+        int seq;
+        synchronized (this) {
+            // Never step backwards, and borrow from the next second once this one's sequence is used up
+            long now = clockMillis.getAsLong() / 1000 - EPOCH_SECOND;
+            if (now > lastSecond) {
+                lastSecond = now;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                lastSecond++;
+                sequence = 0;
+            }
+            second = lastSecond;
+            seq = sequence;
+        }
+        if (second < 0 || second >= 1L << 31) throw new IllegalStateException("Clock outside the health ID range");
+        long value = MARKER | second << (NODE_BITS + SEQUENCE_BITS) | (long) node << SEQUENCE_BITS | seq;
+        char[] id = new char[LENGTH];
+        for (int i = LENGTH - 2; i >= 0; i--) {
+            id[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        id[LENGTH - 1] = ALPHABET.charAt(checkDigit(id, LENGTH - 1));
+        return new String(id);
+    }
+
+    /** True when the ID has the issued shape and its check digit matches. Legacy hex IDs are not checked. */
+    public static boolean isValid(String healthId) {
+        if (healthId == null || healthId.length() != LENGTH) return false;
+        char[] id = healthId.toCharArray();
+        for (char c : id) {
+            if (ALPHABET.indexOf(c) < 0) return false;
+        }
+        return ALPHABET.indexOf(id[0]) >= 16 && ALPHABET.indexOf(id[LENGTH - 1]) == checkDigit(id, LENGTH - 1);
+    }
+
+    // Luhn mod N over the base32 digit values
+    private static int checkDigit(char[] id, int length) {
+        int sum = 0;
+        int factor = 2;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(id[i]);
+            sum += addend / 32 + addend % 32;
+            factor = factor == 2 ? 1 : 2;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    private static int defaultNode() {
+        // Fallback for single-instance setups; clustered deployments should set patients.health-id.node explicitly
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        return Math.floorMod((host + "/" + ManagementFactory.getRuntimeMXBean().getName()).hashCode(), MAX_NODE + 1);
+    }
+}
@@ -0,0 +1,8 @@
+package backend.service;
+
+/** Missing, malformed, forged or expired session token; mapped to 401. */
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -5,7 +5,6 @@ import backend.model.MedicalRecord;
 import backend.model.Patient;
 import backend.repository.DoctorRepository;
 import backend.repository.MedicalRecordRepository;
-import backend.repository.PatientRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -15,20 +14,17 @@ import java.util.Map;
 @Service
 public class MedicalRecordService {
     private final MedicalRecordRepository repository;
-    private final PatientRepository patientRepository;
+    private final PatientResolver patientResolver;
     private final DoctorRepository doctorRepository;
 
-    public MedicalRecordService(MedicalRecordRepository repository, PatientRepository patientRepository, DoctorRepository doctorRepository) {
+    public MedicalRecordService(MedicalRecordRepository repository, PatientResolver patientResolver, DoctorRepository doctorRepository) {
         this.repository = repository;
-        this.patientRepository = patientRepository;
+        this.patientResolver = patientResolver;
         this.doctorRepository = doctorRepository;
     }
 
     public MedicalRecord addRecord(Long doctorId, String patientHealthId, String diagnosis, String prescriptions, String labNotes, String comments) {
-        Patient patient = patientRepository.findAll().stream()
-                .filter(p -> patientHealthId.equals(p.getHealthId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        Patient patient = patientResolver.resolve(patientHealthId);
         Doctor doctor = doctorRepository.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
         MedicalRecord rec = new MedicalRecord();
         rec.setPatient(patient);
@@ -41,10 +37,7 @@ public class MedicalRecordService {
     }
 
     public List<Map<String,Object>> listForPatient(String healthId){
-        Patient patient = patientRepository.findAll().stream()
-                .filter(p -> healthId.equals(p.getHealthId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        Patient patient = patientResolver.resolve(healthId);
         return repository.findByPatientOrderByCreatedAtDesc(patient).stream().map(r -> {
             Map<String,Object> m = new HashMap<>();
             m.put("id", r.getId());
@@ -0,0 +1,128 @@
+package backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt on the dedicated "passwordHashExecutor" pool instead of the request thread. The pool is sized to
+ * the cores and its queue is bounded, so a login surge can only tie up a few request threads waiting for
+ * results; everything beyond that fails fast with {@link ServiceBusyException} (503).
+ * <p>
+ * The BCrypt cost is calibrated once at startup so one hash takes about {@code security.password-hash.target-ms}
+ * on this hardware, unless {@code security.password-hash.cost} pins it. Hashes carry their own cost, so older
+ * ones keep verifying; {@link #needsRehash} tells callers when to upgrade one after a successful login.
+ * <p>
+ * Metrics: {@code password.hash.wait} (time queued), {@code password.hash.duration} (time hashing, tagged by
+ * operation), {@code password.hash.rejected} and the {@code password.hash.queue} and {@code password.hash.cost}
+ * gauges.
+ */
+@Component
+public class PasswordHasher {
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    // Calibration times this cost and extrapolates; each step up doubles the work
+    private static final int PROBE_COST = 8;
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(@Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor, MeterRegistry registry,
+                          @Value("${security.password-hash.cost:0}") int fixedCost,
+                          @Value("${security.password-hash.target-ms:250}") long targetMillis) {
+        this.cost = fixedCost > 0 ? fixedCost : calibrate(targetMillis);
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.executor = executor;
+        this.waitTimer = Timer.builder("password.hash.wait").description("Time hashing tasks spend queued").register(registry);
+        this.encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode").register(registry);
+        this.matchTimer = Timer.builder("password.hash.duration").tag("operation", "matches").register(registry);
+        this.rejected = Counter.builder("password.hash.rejected").description("Hashing requests refused because the queue was full").register(registry);
+        Gauge.builder("password.hash.queue", executor, ThreadPoolTaskExecutor::getQueueSize).register(registry);
+        Gauge.builder("password.hash.cost", this, PasswordHasher::cost).register(registry);
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String hash) {
+        return run(matchTimer, () -> encoder.matches(rawPassword, hash));
+    }
+
+    /**
+     * True when a stored hash was made with a lower cost than the current one (or cannot be read). Stronger
+     * hashes are kept, so a calibration that lands lower on slower hardware never weakens stored passwords.
+     */
+    public boolean needsRehash(String hash) {
+        return costOf(hash) < cost;
+    }
+
+    // BCrypt hashes look like $2a$10$<salt+hash>; the two digits are the cost
+    static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(6) != '$') return -1;
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Picks the cost whose hash time is closest to the target, within [MIN_COST, MAX_COST]. */
+    static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_COST);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        double steps = Math.log(targetMillis * 1_000_000.0 / Math.max(1, best)) / Math.log(2);
+        return Math.max(MIN_COST, Math.min(MAX_COST, PROBE_COST + (int) Math.round(steps)));
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests, please retry shortly");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package backend.service;
+
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import backend.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Resolves health IDs to patients through the unique health_id index, with a bounded healthId -> id cache in
+ * front so repeat lookups need no read at all. Health IDs never change once issued and patient rows are never
+ * deleted, so cached entries cannot go stale; {@link #evict} is there for the day a patient can be removed.
+ */
+@Component
+public class PatientResolver {
+    private final PatientRepository repo;
+    private final LruCache<String, Long> ids;
+
+    public PatientResolver(PatientRepository repo, @Value("${patients.resolver.max-entries:100000}") int maxEntries) {
+        this.repo = repo;
+        this.ids = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Patient for a health ID, fully loaded so callers outside a request can read it too. On a cache hit this is
+     * a primary-key read, answered from the persistence context when the patient is already loaded there,
+     * instead of a lookup through the health_id index.
+     */
+    public Patient resolve(String healthId) {
+        if (healthId == null || healthId.isBlank()) throw new IllegalArgumentException("Patient not found");
+        Long id = ids.get(healthId);
+        if (id != null) return repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        Patient p = repo.findByHealthId(healthId).orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        ids.put(healthId, p.getId());
+        return p;
+    }
+
+    /** Patient id for a health ID; served from the cache without touching the database when possible. */
+    public Long resolveId(String healthId) {
+        if (healthId == null || healthId.isBlank()) throw new IllegalArgumentException("Patient not found");
+        Long id = ids.get(healthId);
+        if (id != null) return id;
+        id = repo.findIdByHealthId(healthId).orElseThrow(() -> new IllegalArgumentException("Patient not found"));
+        ids.put(healthId, id);
+        return id;
+    }
+
+    /** Loads many patients with one IN query and remembers their ids. Unknown health IDs are left out. */
+    public List<Patient> resolveAll(Collection<String> healthIds) {
+        if (healthIds.isEmpty()) return List.of();
+        List<Patient> patients = repo.findByHealthIdIn(healthIds);
+        patients.forEach(p -> ids.put(p.getHealthId(), p.getId()));
+        return patients;
+    }
+
+    public void evict(String healthId) {
+        ids.remove(healthId);
+    }
+
+    public LruCache.Stats stats() {
+        return ids.stats();
+    }
+}
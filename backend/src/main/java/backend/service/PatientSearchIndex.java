@@ -0,0 +1,418 @@
+package backend.service;
+
+import backend.dto.PatientSearchResult;
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over patient name, email and phone for the front-desk search. Each trigram maps to the
+ * list of patients containing it; a query scores patients by how many of its trigrams they share, and only the
+ * best candidates are loaded from the database (by primary key) to rank exact and prefix matches first.
+ * <p>
+ * The index is built from a streaming scan once the application is ready and is kept current by
+ * {@link #add(Patient)} on registration. Patients registered while a rebuild is scanning are replayed into
+ * the new index before it is swapped in, unless the scan already saw them; ids are not assumed to commit in
+ * order. Rebuilds run one at a time. Until the first build finishes, searches answer 503; a failed startup build
+ * is logged and leaves search in that state rather than stopping the application.
+ */
+@Component
+public class PatientSearchIndex {
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_LIMIT = 50;
+    // Candidates loaded per requested result, so exact and prefix matches can be ranked ahead of fuzzy ones
+    private static final int CANDIDATES_PER_RESULT = 3;
+    private static final int FETCH_SIZE = 1000;
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    public record Stats(boolean ready, int documents, int trigrams, long postings, long approxBytes,
+                        long lastRebuildMillis, OffsetDateTime lastRebuildAt) {}
+
+    private record Doc(long id, String fullName, String email, String phone) {}
+
+    private final EntityManagerFactory emf;
+    private final PatientRepository repo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held for a whole rebuild, so a second one waits instead of sharing the pending list
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Postings index = new Postings();
+    private List<Doc> pending;
+    private volatile boolean ready;
+    private volatile long lastRebuildMillis = -1;
+    private volatile OffsetDateTime lastRebuildAt;
+
+    public PatientSearchIndex(EntityManagerFactory emf, PatientRepository repo) {
+        this.emf = emf;
+        this.repo = repo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Patient search index build failed; search answers 503 until a rebuild succeeds", e);
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+            boolean mysql = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof MySQLDialect;
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                Query<Object[]> query = session.createQuery(
+                        "select p.id, p.fullName, p.email, p.phone from Patient p order by p.id", Object[].class);
+                query.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+                query.setReadOnly(true);
+                try (Stream<Object[]> rows = query.getResultStream()) {
+                    rebuild(rows);
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** Builds a fresh index from rows of (id, fullName, email, phone) in id order and swaps it in. */
+    void rebuild(Stream<Object[]> rows) {
+        rebuildLock.lock();
+        try {
+            rebuildLocked(rows);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked(Stream<Object[]> rows) {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings fresh = new Postings();
+        int scanned;
+        try {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] r = it.next();
+                fresh.add(new Doc((Long) r[0], (String) r[1], (String) r[2], (String) r[3]));
+            }
+            fresh.trim();
+            scanned = fresh.size;
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // The scan's ids are ascending, so whether it saw a patient is a binary search
+            for (Doc doc : pending) {
+                if (Arrays.binarySearch(fresh.ids, 0, scanned, doc.id()) < 0) fresh.add(doc);
+            }
+            pending = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildMillis = (System.nanoTime() - started) / 1_000_000;
+        lastRebuildAt = OffsetDateTime.now();
+    }
+
+    public void add(Patient p) {
+        Doc doc = new Doc(p.getId(), p.getFullName(), p.getEmail(), p.getPhone());
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.add(doc);
+            index.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<PatientSearchResult> search(String q, int limit) {
+        String query = q == null ? "" : normalizeText(q);
+        if (query.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search needs at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        if (!ready) throw new ServiceBusyException("Patient search is still loading, please retry shortly");
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String digits = phoneQuery(q);
+        long[] grams = trigrams(digits != null ? digits : query);
+        if (grams.length == 0) return List.of();
+
+        Map<Long, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = index.top(grams, minScore(grams.length), n * CANDIDATES_PER_RESULT);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (scores.isEmpty()) return List.of();
+
+        String needle = digits != null ? digits : query;
+        return repo.findSearchRows(scores.keySet()).stream()
+                .sorted(Comparator.<PatientSearchResult>comparingInt(r -> matchTier(r, needle))
+                        .thenComparing(r -> -scores.get(r.id))
+                        .thenComparing(r -> r.fullName == null ? "" : r.fullName))
+                .limit(n)
+                .toList();
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(ready, index.size, index.trigramCount, index.entries, index.approxBytes(),
+                    lastRebuildMillis, lastRebuildAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Short queries need half their trigrams; longer ones may miss the three that a single typo breaks
+    static int minScore(int grams) {
+        return grams <= 6 ? (grams + 1) / 2 : grams - 3;
+    }
+
+    // 0: a field starts with the query, 1: a field contains it, 2: trigram overlap only
+    private static int matchTier(PatientSearchResult r, String needle) {
+        int best = 2;
+        for (String field : new String[] { normalizeText(r.fullName), normalizeText(r.email), digitsOf(r.phone) }) {
+            if (field.startsWith(needle)) return 0;
+            if (field.contains(needle)) best = 1;
+        }
+        return best;
+    }
+
+    // Queries made only of digits and phone punctuation are matched against phone digits
+    private static String phoneQuery(String q) {
+        if (!q.matches("[0-9+()\\-.\\s]+")) return null;
+        String digits = digitsOf(q);
+        return digits.length() >= MIN_QUERY_LENGTH ? digits : null;
+    }
+
+    static String normalizeText(String s) {
+        if (s == null) return "";
+        StringBuilder b = new StringBuilder(s.length());
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = Character.toLowerCase(s.charAt(i));
+            if (Character.isLetterOrDigit(c) || c == '@' || c == '.' || c == '_' || c == '-' || c == '+') {
+                if (space && b.length() > 0) b.append(' ');
+                b.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return b.toString();
+    }
+
+    static String digitsOf(String s) {
+        if (s == null) return "";
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') b.append(c);
+        }
+        return b.toString();
+    }
+
+    /** Distinct trigrams of the given strings, packed three chars to a long, in ascending order. */
+    static long[] trigrams(String... parts) {
+        int total = 0;
+        for (String part : parts) total += Math.max(0, part.length() - 2);
+        long[] grams = new long[total];
+        int n = 0;
+        for (String part : parts) {
+            for (int i = 0; i + 3 <= part.length(); i++) {
+                grams[n++] = (long) part.charAt(i) << 32 | (long) part.charAt(i + 1) << 16 | part.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) grams[distinct++] = grams[i];
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Trigram -> ascending document positions, plus the patient id of each position. Trigrams are looked up in
+     * an open-addressing table so indexing and searching do not box keys.
+     */
+    private static final class Postings {
+        long[] keys = new long[1 << 16];
+        int[] slots = new int[1 << 16];
+        IntList[] lists = new IntList[1024];
+        int trigramCount;
+        long[] ids = new long[1024];
+        int size;
+        long entries;
+
+        void add(Doc doc) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            int pos = size++;
+            ids[pos] = doc.id();
+            long[] grams = trigrams(normalizeText(doc.fullName()), normalizeText(doc.email()), digitsOf(doc.phone()));
+            for (long g : grams) {
+                int slot = find(g);
+                IntList list;
+                if (keys[slot] == 0) {
+                    if (trigramCount == lists.length) lists = Arrays.copyOf(lists, trigramCount * 2);
+                    list = lists[trigramCount] = new IntList();
+                    keys[slot] = g;
+                    slots[slot] = trigramCount++;
+                    if (trigramCount * 2 > keys.length) grow();
+                } else {
+                    list = lists[slots[slot]];
+                }
+                list.add(pos);
+            }
+            entries += grams.length;
+        }
+
+        IntList get(long gram) {
+            int slot = find(gram);
+            return keys[slot] == 0 ? null : lists[slots[slot]];
+        }
+
+        private int find(long gram) {
+            int mask = keys.length - 1;
+            int slot = (int) (gram * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != gram) slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[oldKeys.length * 2];
+            slots = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) continue;
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                slots[slot] = oldSlots[i];
+            }
+        }
+
+        /**
+         * The k best positions sharing at least minScore of the query trigrams, mapped to patient id -> score.
+         * A position with minScore hits must appear in one of the (lists - minScore + 1) shortest lists, so only
+         * those are merged into candidates; the longer lists are probed for the candidates alone.
+         */
+        Map<Long, Integer> top(long[] grams, int minScore, int k) {
+            List<IntList> found = new ArrayList<>();
+            for (long g : grams) {
+                IntList list = get(g);
+                if (list != null) found.add(list);
+            }
+            int seedLists = found.size() - minScore + 1;
+            if (seedLists <= 0) return Map.of();
+            found.sort(Comparator.comparingInt(l -> l.size));
+
+            int capacity = 0;
+            for (int i = 0; i < seedLists; i++) capacity += found.get(i).size;
+            int[] pos = new int[capacity];
+            int[] count = new int[capacity];
+            int[] mergedPos = new int[capacity];
+            int[] mergedCount = new int[capacity];
+            int n = 0;
+            for (int i = 0; i < seedLists; i++) {
+                IntList list = found.get(i);
+                int a = 0, b = 0, m = 0;
+                while (a < n || b < list.size) {
+                    if (b == list.size || (a < n && pos[a] < list.values[b])) {
+                        mergedPos[m] = pos[a];
+                        mergedCount[m++] = count[a++];
+                    } else if (a == n || list.values[b] < pos[a]) {
+                        mergedPos[m] = list.values[b++];
+                        mergedCount[m++] = 1;
+                    } else {
+                        mergedPos[m] = pos[a];
+                        mergedCount[m++] = count[a++] + 1;
+                        b++;
+                    }
+                }
+                int[] swap = pos;
+                pos = mergedPos;
+                mergedPos = swap;
+                swap = count;
+                count = mergedCount;
+                mergedCount = swap;
+                n = m;
+            }
+            for (int i = seedLists; i < found.size(); i++) {
+                IntList list = found.get(i);
+                boolean probe = (long) n * 32 < list.size;
+                for (int c = 0, b = 0; c < n; c++) {
+                    if (probe) {
+                        if (Arrays.binarySearch(list.values, 0, list.size, pos[c]) >= 0) count[c]++;
+                    } else {
+                        while (b < list.size && list.values[b] < pos[c]) b++;
+                        if (b < list.size && list.values[b] == pos[c]) count[c]++;
+                    }
+                }
+            }
+
+            // Min-heap of (score, position) packed into a long; keeps the k best, older patients first on ties
+            PriorityQueue<Long> heap = new PriorityQueue<>(k + 1);
+            for (int c = 0; c < n; c++) {
+                if (count[c] < minScore) continue;
+                heap.add((long) count[c] << 32 | (Integer.MAX_VALUE - pos[c]));
+                if (heap.size() > k) heap.poll();
+            }
+            Map<Long, Integer> out = new HashMap<>();
+            for (long packed : heap) {
+                out.put(ids[Integer.MAX_VALUE - (int) packed], (int) (packed >>> 32));
+            }
+            return out;
+        }
+
+        void trim() {
+            ids = Arrays.copyOf(ids, Math.max(size, 1));
+            for (int i = 0; i < trigramCount; i++) lists[i].trim();
+        }
+
+        long approxBytes() {
+            // int per posting entry, a list header per trigram, the hash table and the id table
+            return entries * 4 + trigramCount * 32L + keys.length * 12L + ids.length * 8L;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, Math.max(4, size * 2));
+            values[size++] = v;
+        }
+
+        void trim() {
+            if (values.length > size) values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -2,27 +2,30 @@ package backend.service;
 
 import backend.dto.LoginRequest;
 import backend.dto.LoginResponse;
+import backend.dto.PatientSearchResult;
 import backend.dto.RegisterRequest;
 import backend.dto.RegisterResponse;
 import backend.model.Patient;
 import backend.repository.PatientRepository;
-import com.google.zxing.WriterException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.awt.image.BufferedImage;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-
-import static backend.util.QrCodeUtil.generateQrImage;
 
 @Service
 public class PatientService {
     private final PatientRepository repository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final HealthIdGenerator healthIds;
+    private final PasswordHasher passwordHasher;
+    private final PatientSearchIndex searchIndex;
 
-    public PatientService(PatientRepository repository) {
+    public PatientService(PatientRepository repository, HealthIdGenerator healthIds, PasswordHasher passwordHasher,
+                          PatientSearchIndex searchIndex) {
         this.repository = repository;
+        this.healthIds = healthIds;
+        this.passwordHasher = passwordHasher;
+        this.searchIndex = searchIndex;
     }
 
     public RegisterResponse register(RegisterRequest req) {
@@ -30,12 +33,12 @@ public class PatientService {
             throw new IllegalArgumentException("Email already registered");
         }
 
-        String healthId = generateUniqueHealthId();
+        String healthId = healthIds.next();
 
         Patient p = new Patient();
         p.setFullName(req.fullName);
         p.setEmail(req.email);
-        p.setPasswordHash(passwordEncoder.encode(req.password));
+        p.setPasswordHash(passwordHasher.encode(req.password));
         p.setPhone(req.phone);
         p.setAddress(req.address);
     p.setDateOfBirth(req.dateOfBirth);
@@ -44,7 +47,17 @@ public class PatientService {
     // createdAt defaults in entity
         p.setHealthId(healthId);
 
-        Patient saved = repository.save(p);
+        Patient saved;
+        try {
+            saved = repository.save(p);
+        } catch (DataIntegrityViolationException e) {
+            // Same email registered concurrently, or two instances sharing a health ID node; a fresh ID settles the latter
+            if (repository.existsByEmail(req.email)) throw new IllegalArgumentException("Email already registered");
+            p.setId(null);
+            p.setHealthId(healthIds.next());
+            saved = repository.save(p);
+        }
+        searchIndex.add(saved);
         return new RegisterResponse(saved.getId(), saved.getFullName(), saved.getEmail(), saved.getHealthId());
     }
 
@@ -54,23 +67,18 @@ public class PatientService {
             throw new IllegalArgumentException("Invalid credentials");
         }
         Patient p = opt.get();
-        if (!passwordEncoder.matches(req.password, p.getPasswordHash())) {
+        if (!passwordHasher.matches(req.password, p.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid credentials");
         }
+        if (passwordHasher.needsRehash(p.getPasswordHash())) {
+            p.setPasswordHash(passwordHasher.encode(req.password));
+            repository.save(p);
+        }
         return new LoginResponse("Login successful", p.getHealthId());
     }
 
-    public BufferedImage qrForHealthId(String healthId) throws WriterException {
-        return generateQrImage(healthId, 300, 300);
-    }
-
-    private String generateUniqueHealthId() {
-        // 12-char uppercase ID from UUID without dashes
-        String id;
-        do {
-            id = UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
-        } while (repository.existsByHealthId(id));
-        return id;
+    public List<PatientSearchResult> search(String q, int limit) {
+        return searchIndex.search(q, limit);
     }
 
     public Optional<Patient> findByHealthId(String healthId) { return repository.findByHealthId(healthId); }
@@ -0,0 +1,105 @@
+package backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed file store for doctor photos under {@code doctors.photos.dir}. A file is named by the SHA-256
+ * of its bytes and kept in a subdirectory named by the first two hex digits; identical uploads share one file.
+ * Uploads are streamed to a temporary file while hashing and then moved into place atomically, so readers never
+ * see a partial file. Files are never rewritten, which makes the hash a safe ETag. Files no doctor refers to any
+ * more are removed by {@link #sweep}.
+ */
+@Component
+public class PhotoStore {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final Path tmp;
+
+    public PhotoStore(@Value("${doctors.photos.dir:data/doctor-photos}") Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.tmp = Files.createDirectories(this.root.resolve("tmp"));
+    }
+
+    /** Stores the stream's bytes and returns their SHA-256 in hex. */
+    public String put(InputStream in) throws IOException {
+        Path part = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(part), sha256)) {
+                in.transferTo(out);
+            }
+            String hash = HEX.formatHex(sha256.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Another upload of the same bytes may land first; replacing it with identical content is harmless
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // Reused: mark it fresh so a sweep running before this upload is saved does not delete it
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public String put(byte[] bytes) throws IOException {
+        return put(new ByteArrayInputStream(bytes));
+    }
+
+    /** Location of the file for a hash; the hash is checked so it can never name a path outside the store. */
+    public Path path(String hash) {
+        if (hash == null || hash.length() != 64 || !hash.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            throw new IllegalArgumentException("Invalid photo hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean exists(String hash) {
+        return Files.isRegularFile(path(hash));
+    }
+
+    /** Deletes stored files whose hash is not in keep and that were last written before cutoff; returns the count. */
+    public int sweep(Set<String> keep, Instant cutoff) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root, 2)) {
+            // Stored files sit one directory down; uploads in progress are under tmp
+            files = walk.filter(f -> root.relativize(f).getNameCount() == 2 && !f.startsWith(tmp) && Files.isRegularFile(f))
+                    .toList();
+        }
+        int deleted = 0;
+        for (Path file : files) {
+            if (keep.contains(file.getFileName().toString())) continue;
+            if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) deleted++;
+        }
+        return deleted;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
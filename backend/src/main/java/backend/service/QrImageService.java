@@ -0,0 +1,121 @@
+package backend.service;
+
+import backend.util.LruCache;
+import backend.util.QrCodeUtil;
+import backend.util.QrPngEncoder;
+import backend.util.QrSvgEncoder;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Encoded QR images for health IDs, as PNG or SVG, cached by (healthId, format, size, margin, error correction) in a
+ * byte-bounded LRU. A patient's QR never changes, so each variant is encoded once and served with a strong ETag
+ * derived from its bytes.
+ * <p>
+ * Metrics: {@code qr.cache.hits}, {@code qr.cache.misses}, {@code qr.cache.evictions} and {@code qr.cache.bytes}.
+ */
+@Service
+public class QrImageService {
+    public static final int DEFAULT_SIZE = 300;
+    public static final int MIN_SIZE = 64;
+    public static final int MAX_SIZE = 1024;
+    public static final int DEFAULT_MARGIN = QrPngEncoder.QUIET_ZONE;
+    public static final int MAX_MARGIN = 16;
+
+    public enum Format {
+        PNG("image/png"),
+        SVG("image/svg+xml");
+
+        public final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Format of(String value) {
+            for (Format f : values()) {
+                if (f.name().equalsIgnoreCase(value)) return f;
+            }
+            throw new IllegalArgumentException("Unsupported QR format: " + value);
+        }
+    }
+
+    public record QrImage(byte[] bytes, String etag, Format format) {}
+
+    private record Key(String healthId, Format format, int size, int margin, ErrorCorrectionLevel errorCorrection) {}
+
+    private final LruCache<Key, QrImage> cache;
+
+    public QrImageService(@Value("${qr.cache.max-bytes:16777216}") long maxBytes, MeterRegistry registry) {
+        this.cache = new LruCache<>(maxBytes, img -> img.bytes().length);
+        FunctionCounter.builder("qr.cache.hits", cache, c -> c.stats().hits()).register(registry);
+        FunctionCounter.builder("qr.cache.misses", cache, c -> c.stats().misses()).register(registry);
+        FunctionCounter.builder("qr.cache.evictions", cache, c -> c.stats().evictions()).register(registry);
+        Gauge.builder("qr.cache.bytes", cache, c -> c.stats().weight()).register(registry);
+    }
+
+    public QrImage png(String healthId, int size) {
+        return render(healthId, Format.PNG, size, DEFAULT_MARGIN, ErrorCorrectionLevel.L);
+    }
+
+    public QrImage render(String healthId, Format format, int size, int margin, ErrorCorrectionLevel errorCorrection) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("QR size must be between " + MIN_SIZE + " and " + MAX_SIZE);
+        }
+        if (margin < 0 || margin > MAX_MARGIN) {
+            throw new IllegalArgumentException("QR margin must be between 0 and " + MAX_MARGIN + " modules");
+        }
+        Key key = new Key(healthId, format, size, margin, errorCorrection);
+        QrImage cached = cache.get(key);
+        if (cached != null) return cached;
+        // Concurrent misses for the same key may both encode; the result is identical either way
+        QrImage image = encode(key);
+        cache.put(key, image);
+        return image;
+    }
+
+    /** Parses L, M, Q or H (any case). */
+    public static ErrorCorrectionLevel errorCorrection(String value) {
+        try {
+            return ErrorCorrectionLevel.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error correction must be one of L, M, Q, H");
+        }
+    }
+
+    public LruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static QrImage encode(Key key) {
+        try {
+            BitMatrix modules = QrCodeUtil.encodeModules(key.healthId(), key.errorCorrection());
+            byte[] bytes = switch (key.format()) {
+                case PNG -> QrPngEncoder.encode(modules, key.size(), key.size(), key.margin());
+                case SVG -> QrSvgEncoder.encode(modules, key.size(), key.margin()).getBytes(StandardCharsets.UTF_8);
+            };
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new QrImage(bytes, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"", key.format());
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("Cannot encode QR for health ID", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package backend.service;
+
+import backend.dto.QrSheetRequest;
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import backend.util.QrCodeUtil;
+import backend.util.QrPngEncoder;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfTemplate;
+import com.lowagie.text.pdf.PdfWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Printable A4 sheets of patient QR cards, streamed to the response page by page. Patients are read a page's worth
+ * at a time (from a forward-only cursor for date ranges), QR modules for the next few pages are encoded on
+ * "qrSheetExecutor" while the current page is written, and each finished page's drawings are released to the
+ * stream, so memory stays flat however many cards the sheet has.
+ * <p>
+ * Codes are drawn as vector rectangles rather than embedded bitmaps, so they print sharp at any scale.
+ */
+@Service
+public class QrSheetService {
+    public static final int MAX_HEALTH_IDS = 20_000;
+    static final int COLUMNS = 3;
+    static final int ROWS = 4;
+    static final int CARDS_PER_PAGE = COLUMNS * ROWS;
+    // Pages whose QR codes are encoded ahead of the one being written
+    private static final int LOOKAHEAD_PAGES = 4;
+    private static final int ID_CHUNK = 500;
+    static final int FETCH_SIZE = 500;
+    private static final float MARGIN = 36f;
+    // A point short of a quarter page so rounding never pushes the fourth row over
+    private static final float CARD_HEIGHT = (PageSize.A4.getHeight() - 2 * MARGIN) / ROWS - 1f;
+    private static final float QR_SIZE = 130f;
+
+    private record Card(String healthId, String fullName) {}
+
+    private record PendingCard(Card card, CompletableFuture<BitMatrix> modules) {}
+
+    private final SessionFactory sessionFactory;
+    private final PatientRepository patientRepository;
+    private final Executor executor;
+    private final int fetchSize;
+
+    @Autowired
+    public QrSheetService(EntityManagerFactory emf, PatientRepository patientRepository,
+                          @Qualifier("qrSheetExecutor") Executor executor) {
+        this(emf.unwrap(SessionFactory.class), patientRepository, executor,
+                fetchSizeFor(emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()));
+    }
+
+    QrSheetService(SessionFactory sessionFactory, PatientRepository patientRepository, Executor executor, int fetchSize) {
+        this.sessionFactory = sessionFactory;
+        this.patientRepository = patientRepository;
+        this.executor = executor;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Checked before the response starts, so a bad request is still a 400 rather than a broken download. */
+    public void validate(QrSheetRequest req) {
+        boolean byIds = req.healthIds != null && !req.healthIds.isEmpty();
+        boolean byDates = req.from != null || req.to != null;
+        if (byIds == byDates) {
+            throw new IllegalArgumentException("Provide either healthIds or a registration date range (from/to)");
+        }
+        if (byIds && req.healthIds.size() > MAX_HEALTH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_HEALTH_IDS + " health IDs per sheet");
+        }
+        if (req.from != null && req.to != null && req.from.isAfter(req.to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    /** Unknown health IDs are skipped; a date range selects patients registered on those days, oldest first. */
+    public void write(QrSheetRequest req, OutputStream out) throws IOException {
+        validate(req);
+        if (req.healthIds != null && !req.healthIds.isEmpty()) {
+            writeSheet(byHealthIds(req.healthIds), out);
+            return;
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Query<Object[]> query = session.createQuery(
+                    "select p.healthId, p.fullName from Patient p " +
+                    "where (:from is null or p.createdAt >= :from) " +
+                    "and (:to is null or p.createdAt < :to) " +
+                    "order by p.createdAt, p.id", Object[].class);
+            // Typed, so an open end binds as a null timestamp rather than a parameter of unknown type
+            query.setParameter("from", startOfDay(req.from), OffsetDateTime.class);
+            query.setParameter("to", startOfDay(req.to == null ? null : req.to.plusDays(1)), OffsetDateTime.class);
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            try (ScrollableResults<Object[]> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                writeSheet(new Iterator<>() {
+                    private Boolean hasNext;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (hasNext == null) hasNext = rows.next();
+                        return hasNext;
+                    }
+
+                    @Override
+                    public Card next() {
+                        hasNext();
+                        hasNext = null;
+                        Object[] r = rows.get();
+                        return new Card((String) r[0], (String) r[1]);
+                    }
+                }, out);
+            }
+        }
+    }
+
+    // Looks IDs up a chunk at a time, keeping the requested order (and any repeats)
+    private Iterator<Card> byHealthIds(List<String> healthIds) {
+        int chunks = (healthIds.size() + ID_CHUNK - 1) / ID_CHUNK;
+        return IntStream.range(0, chunks).boxed().flatMap(i -> {
+            List<String> chunk = healthIds.subList(i * ID_CHUNK, Math.min(healthIds.size(), (i + 1) * ID_CHUNK));
+            Map<String, Patient> found = patientRepository.findByHealthIdIn(chunk).stream()
+                    .collect(Collectors.toMap(Patient::getHealthId, Function.identity(), (a, b) -> a));
+            return chunk.stream().filter(found::containsKey)
+                    .map(id -> new Card(id, found.get(id).getFullName()));
+        }).iterator();
+    }
+
+    private void writeSheet(Iterator<Card> cards, OutputStream out) throws IOException {
+        try {
+            writePages(cards, out);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate QR sheet", e);
+        }
+    }
+
+    private void writePages(Iterator<Card> cards, OutputStream out) throws IOException, DocumentException {
+        Document doc = new Document(PageSize.A4, MARGIN, MARGIN, MARGIN, MARGIN);
+        PdfWriter writer = PdfWriter.getInstance(doc, out);
+        // The servlet container owns the response stream
+        writer.setCloseStream(false);
+        doc.open();
+        Font nameFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, Color.BLACK);
+        Font idFont = FontFactory.getFont(FontFactory.COURIER, 9, Color.DARK_GRAY);
+
+        Deque<List<PendingCard>> pages = new ArrayDeque<>();
+        fill(pages, cards);
+        if (pages.isEmpty()) {
+            doc.add(new Paragraph("No matching patients.", nameFont));
+        }
+        while (!pages.isEmpty()) {
+            List<PendingCard> page = pages.removeFirst();
+            PdfPTable table = new PdfPTable(COLUMNS);
+            table.setWidthPercentage(100);
+            List<PdfTemplate> drawings = new ArrayList<>(page.size());
+            for (PendingCard pending : page) {
+                PdfTemplate qr = draw(writer, pending.modules().join());
+                drawings.add(qr);
+                table.addCell(cardCell(qr, pending.card(), nameFont, idFont));
+            }
+            table.completeRow();
+            doc.add(table);
+            doc.newPage();
+            // Write the page's QR drawings out now instead of holding them until close
+            for (PdfTemplate qr : drawings) {
+                writer.releaseTemplate(qr);
+            }
+            out.flush();
+            fill(pages, cards);
+        }
+        doc.close();
+    }
+
+    // Reads and starts encoding cards until LOOKAHEAD_PAGES pages are in flight
+    private void fill(Deque<List<PendingCard>> pages, Iterator<Card> cards) {
+        while (pages.size() < LOOKAHEAD_PAGES && cards.hasNext()) {
+            List<PendingCard> page = new ArrayList<>(CARDS_PER_PAGE);
+            while (page.size() < CARDS_PER_PAGE && cards.hasNext()) {
+                Card card = cards.next();
+                page.add(new PendingCard(card, CompletableFuture.supplyAsync(() -> encode(card.healthId()), executor)));
+            }
+            pages.addLast(page);
+        }
+    }
+
+    private static BitMatrix encode(String healthId) {
+        try {
+            return QrCodeUtil.encodeModules(healthId);
+        } catch (WriterException e) {
+            throw new IllegalStateException("Cannot encode QR for " + healthId, e);
+        }
+    }
+
+    // One filled rectangle per horizontal run of dark modules, with the standard quiet zone
+    private static PdfTemplate draw(PdfWriter writer, BitMatrix modules) {
+        int width = modules.getWidth();
+        int height = modules.getHeight();
+        float module = QR_SIZE / (width + 2 * QrPngEncoder.QUIET_ZONE);
+        PdfTemplate t = writer.getDirectContent().createTemplate(QR_SIZE, QR_SIZE);
+        t.setColorFill(Color.BLACK);
+        for (int y = 0; y < height; y++) {
+            float top = QR_SIZE - (QrPngEncoder.QUIET_ZONE + y + 1) * module;
+            int x = 0;
+            while (x < width) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && modules.get(x, y)) x++;
+                t.rectangle((QrPngEncoder.QUIET_ZONE + start) * module, top, (x - start) * module, module);
+            }
+        }
+        t.fill();
+        return t;
+    }
+
+    private static PdfPCell cardCell(PdfTemplate qr, Card card, Font nameFont, Font idFont) {
+        PdfPCell cell = new PdfPCell();
+        cell.setFixedHeight(CARD_HEIGHT);
+        cell.setPadding(8f);
+        cell.setBorderColor(Color.LIGHT_GRAY);
+        try {
+            Image image = Image.getInstance(qr);
+            image.setAlignment(Image.ALIGN_CENTER);
+            cell.addElement(image);
+        } catch (BadElementException e) {
+            throw new IllegalStateException(e);
+        }
+        Paragraph name = new Paragraph(card.fullName() == null ? "" : card.fullName(), nameFont);
+        name.setAlignment(Element.ALIGN_CENTER);
+        cell.addElement(name);
+        Paragraph id = new Paragraph(card.healthId(), idFont);
+        id.setAlignment(Element.ALIGN_CENTER);
+        cell.addElement(id);
+        return cell;
+    }
+
+    private static OffsetDateTime startOfDay(LocalDate day) {
+        return day == null ? null : day.atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    // MySQL Connector/J buffers the whole result set unless the fetch size is Integer.MIN_VALUE (row streaming)
+    static int fetchSizeFor(Dialect dialect) {
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
@@ -0,0 +1,288 @@
+package backend.service;
+
+import backend.model.Appointment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory occupancy bitmap per doctor and day. Bit {@code i} of a day's word is set when the
+ * {@code i}-th slot of the doctor's {@link SlotTemplate} for that weekday holds an active (not rejected/cancelled) appointment.
+ * Days are loaded from the database once on first use and then kept current by {@link AppointmentService}.
+ * Slots held by {@link SlotHoldService} are tracked separately and OR-ed in whenever a day is (re)loaded,
+ * so a hold survives the day being dropped from the cache.
+ * <p>
+ * Each cached day keeps the template its bits were laid out against. A day whose template is no longer the
+ * doctor's current one is treated as missing and reloaded, so a load that races a schedule change can never
+ * leave bits in the old layout behind.
+ */
+@Component
+public class SlotAvailabilityIndex {
+    // Upper bound on cached days before past days are dropped
+    private static final int MAX_CACHED_DAYS = 100_000;
+    // Reloads of a day whose slots keep changing mid-load before it is cached as read
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private record DayKey(Long doctorId, LocalDate date) {}
+
+    private record Day(SlotTemplate template, long bits) {}
+
+    private final SlotTemplates templates;
+    private final ConcurrentHashMap<DayKey, Day> days = new ConcurrentHashMap<>();
+    // Held slot times rather than bits, so a hold keeps its slot when the doctor's template is recompiled
+    private final ConcurrentHashMap<DayKey, Set<LocalTime>> held = new ConcurrentHashMap<>();
+    // Bumped before every release or eviction so loads can tell whether what they read is still current
+    private final AtomicLong mutations = new AtomicLong();
+
+    public SlotAvailabilityIndex(SlotTemplates templates) {
+        this.templates = templates;
+    }
+
+    public SlotTemplate template(Long doctorId, LocalDate date) {
+        return templates.forDay(doctorId, date);
+    }
+
+    /** Whether {@code time} is a slot start in the doctor's template for {@code date}. */
+    public boolean isBookable(Long doctorId, LocalDate date, LocalTime time) {
+        return template(doctorId, date).indexOf(time) >= 0;
+    }
+
+    /** Free slot start times of the doctor's day for an occupancy word, in ascending order. */
+    public List<LocalTime> freeSlots(Long doctorId, LocalDate date, long occupied) {
+        return template(doctorId, date).freeSlots(occupied);
+    }
+
+    /**
+     * Occupancy word for the doctor's day, loading it through {@code loader} on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public long occupancy(Long doctorId, LocalDate date, Supplier<? extends Collection<Appointment>> loader) {
+        Day day = loaded(new DayKey(doctorId, date), template(doctorId, date), loader);
+        if (days.size() > MAX_CACHED_DAYS) trim();
+        return day.bits();
+    }
+
+    /**
+     * Occupancy words for every day in {@code [from, to]}. Cached days are used as-is; if any are
+     * missing, {@code rangeLoader} is called once for the whole window and the missing days are
+     * cached from its result, unless a slot changed while it was running.
+     */
+    public Map<LocalDate, Long> occupancyRange(Long doctorId, LocalDate from, LocalDate to,
+                                               Supplier<? extends Collection<Appointment>> rangeLoader) {
+        return occupancyRange(List.of(doctorId), from, to, ids -> rangeLoader.get()).get(doctorId);
+    }
+
+    /**
+     * Multi-doctor form of {@link #occupancyRange(Long, LocalDate, LocalDate, Supplier)}: the loader is
+     * called at most once with the ids of the doctors that have uncached days in the window.
+     */
+    public Map<Long, Map<LocalDate, Long>> occupancyRange(Collection<Long> doctorIds, LocalDate from, LocalDate to,
+                                                          Function<Collection<Long>, ? extends Collection<Appointment>> rangeLoader) {
+        Map<Long, Map<LocalDate, Long>> result = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long doctorId : doctorIds) {
+            Map<LocalDate, Long> byDate = new LinkedHashMap<>();
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                Day day = days.get(new DayKey(doctorId, d));
+                Long bits = current(day, template(doctorId, d)) ? day.bits() : null;
+                byDate.put(d, bits);
+                if (bits == null) missing.add(doctorId);
+            }
+            result.put(doctorId, byDate);
+        }
+        if (missing.isEmpty()) return result;
+
+        long stamp = mutations.get();
+        Map<DayKey, List<Appointment>> loaded = byDay(rangeLoader.apply(missing));
+        for (Long doctorId : missing) {
+            for (Map.Entry<LocalDate, Long> e : result.get(doctorId).entrySet()) {
+                if (e.getValue() != null) continue;
+                DayKey key = new DayKey(doctorId, e.getKey());
+                e.setValue(cache(key, loaded.getOrDefault(key, List.of()), stamp));
+            }
+        }
+        if (days.size() > MAX_CACHED_DAYS) trim();
+        return result;
+    }
+
+    /**
+     * Caches the listed doctor/days that are not cached yet. {@code loader} is called at most once, with the
+     * doctors and dates of the missing days; appointments it returns for other combinations are ignored.
+     * Like {@link #occupancyRange}, nothing is cached if a slot changed while it was running.
+     */
+    public void preload(Map<Long, Set<LocalDate>> datesByDoctor,
+                        BiFunction<Collection<Long>, Collection<LocalDate>, ? extends Collection<Appointment>> loader) {
+        Set<DayKey> missing = new LinkedHashSet<>();
+        datesByDoctor.forEach((doctorId, dates) -> dates.forEach(d -> {
+            DayKey key = new DayKey(doctorId, d);
+            if (!current(days.get(key), template(doctorId, d))) missing.add(key);
+        }));
+        if (missing.isEmpty()) return;
+
+        Set<Long> doctorIds = new LinkedHashSet<>();
+        Set<LocalDate> dates = new LinkedHashSet<>();
+        missing.forEach(k -> {
+            doctorIds.add(k.doctorId());
+            dates.add(k.date());
+        });
+        long stamp = mutations.get();
+        Map<DayKey, List<Appointment>> loaded = byDay(loader.apply(doctorIds, dates));
+        for (DayKey key : missing) {
+            cache(key, loaded.getOrDefault(key, List.of()), stamp);
+        }
+        if (days.size() > MAX_CACHED_DAYS) trim();
+    }
+
+    /**
+     * Atomically takes a free slot, loading the day through {@code loader} first if needed.
+     * The load runs outside the map's locks; only the bit flip is serialized per doctor/day, so
+     * different doctors proceed in parallel. Returns false if the slot is already taken or not in the template.
+     */
+    public boolean claim(Long doctorId, LocalDate date, LocalTime time, Supplier<? extends Collection<Appointment>> loader) {
+        return take(doctorId, date, time, loader, false);
+    }
+
+    /**
+     * Like {@link #claim} but records the slot as held, so it stays taken across reloads of the day
+     * until {@link #unhold} is called.
+     */
+    public boolean hold(Long doctorId, LocalDate date, LocalTime time, Supplier<? extends Collection<Appointment>> loader) {
+        return take(doctorId, date, time, loader, true);
+    }
+
+    /**
+     * Drops a hold. With {@code keepOccupied} the slot stays taken (the hold became a booking),
+     * otherwise it is freed.
+     */
+    public void unhold(Long doctorId, LocalDate date, LocalTime time, boolean keepOccupied) {
+        held.computeIfPresent(new DayKey(doctorId, date), (k, times) -> {
+            times.remove(time);
+            return times.isEmpty() ? null : times;
+        });
+        if (!keepOccupied) release(doctorId, date, time);
+    }
+
+    private boolean take(Long doctorId, LocalDate date, LocalTime time, Supplier<? extends Collection<Appointment>> loader, boolean asHold) {
+        SlotTemplate template = template(doctorId, date);
+        int slot = template.indexOf(time);
+        if (slot < 0) return false;
+        long bit = 1L << slot;
+        DayKey key = new DayKey(doctorId, date);
+        // 0 while the loaded day was evicted before the bit could be flipped, then 1 if taken, 2 if already occupied
+        int[] outcome = new int[1];
+        while (outcome[0] == 0) {
+            loaded(key, template, loader);
+            days.compute(key, (k, day) -> {
+                if (!current(day, template)) return day;
+                if ((day.bits() & bit) != 0) {
+                    outcome[0] = 2;
+                    return day;
+                }
+                if (asHold) held.computeIfAbsent(k, x -> ConcurrentHashMap.newKeySet()).add(time);
+                outcome[0] = 1;
+                return new Day(template, day.bits() | bit);
+            });
+        }
+        if (days.size() > MAX_CACHED_DAYS) trim();
+        return outcome[0] == 1;
+    }
+
+    /**
+     * The cached day, loading it through {@code loader} on a miss. The query runs outside {@code compute} so it never
+     * holds a bin lock; the result is installed only if no slot changed while it ran, else the day is read again.
+     * After {@link #MAX_LOAD_ATTEMPTS} the last read is kept anyway and the slot's unique key stays the final guard.
+     */
+    private Day loaded(DayKey key, SlotTemplate template, Supplier<? extends Collection<Appointment>> loader) {
+        for (int attempt = 1; ; attempt++) {
+            Day day = days.get(key);
+            if (current(day, template)) return day;
+            long stamp = mutations.get();
+            long bits = load(key, template, loader.get());
+            boolean last = attempt == MAX_LOAD_ATTEMPTS;
+            day = days.compute(key, (k, cached) -> current(cached, template) ? cached
+                    : last || mutations.get() == stamp ? new Day(template, bits) : cached);
+            if (current(day, template)) return day;
+        }
+    }
+
+    private static boolean current(Day day, SlotTemplate template) {
+        return day != null && day.template() == template;
+    }
+
+    // Caches a day built from appointments read at mutation count stamp, unless a slot changed since
+    private long cache(DayKey key, Collection<Appointment> appointments, long stamp) {
+        SlotTemplate template = template(key.doctorId(), key.date());
+        long bits = load(key, template, appointments);
+        Day day = days.compute(key, (k, cached) -> current(cached, template) ? cached
+                : mutations.get() == stamp ? new Day(template, bits) : null);
+        return day != null ? day.bits() : bits;
+    }
+
+    private long load(DayKey key, SlotTemplate template, Collection<Appointment> appointments) {
+        long bits = heldBits(key, template);
+        for (Appointment a : appointments) {
+            int slot = template.indexOf(a.getTime());
+            if (slot >= 0 && isActive(a.getStatus())) bits |= 1L << slot;
+        }
+        return bits;
+    }
+
+    private long heldBits(DayKey key, SlotTemplate template) {
+        Set<LocalTime> times = held.get(key);
+        if (times == null) return 0L;
+        long bits = 0L;
+        for (LocalTime t : times) {
+            int slot = template.indexOf(t);
+            if (slot >= 0) bits |= 1L << slot;
+        }
+        return bits;
+    }
+
+    /** Marks the slot as free if the day is cached. */
+    public void release(Long doctorId, LocalDate date, LocalTime time) {
+        SlotTemplate template = template(doctorId, date);
+        int slot = template.indexOf(time);
+        if (slot < 0) return;
+        mutations.incrementAndGet();
+        days.computeIfPresent(new DayKey(doctorId, date),
+                (k, day) -> current(day, template) ? new Day(template, day.bits() & ~(1L << slot)) : null);
+    }
+
+    /** Drops the doctor's cached days, e.g. after a schedule change moved the bit layout. */
+    public void evictDoctor(Long doctorId) {
+        mutations.incrementAndGet();
+        days.keySet().removeIf(k -> k.doctorId().equals(doctorId));
+    }
+
+    private void trim() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(k -> k.date().isBefore(today));
+        if (days.size() > MAX_CACHED_DAYS) days.clear();
+    }
+
+    public static boolean isActive(Appointment.Status status) {
+        return status != Appointment.Status.REJECTED && status != Appointment.Status.CANCELLED;
+    }
+
+    private static Map<DayKey, List<Appointment>> byDay(Collection<Appointment> appointments) {
+        Map<DayKey, List<Appointment>> byDay = new HashMap<>();
+        for (Appointment a : appointments) {
+            byDay.computeIfAbsent(new DayKey(a.getDoctor().getId(), a.getDate()), k -> new ArrayList<>()).add(a);
+        }
+        return byDay;
+    }
+}
@@ -0,0 +1,7 @@
+package backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/** Published when an active appointment is cancelled or rejected and its slot becomes free. */
+public record SlotFreedEvent(Long doctorId, LocalDate date, LocalTime time) {}
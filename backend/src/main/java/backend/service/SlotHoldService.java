@@ -0,0 +1,147 @@
+package backend.service;
+
+import backend.dto.SlotHold;
+import backend.model.Appointment;
+import backend.util.HashedTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived holds on slots while a patient confirms a booking. Holds live only in memory: they take the
+ * slot in {@link SlotAvailabilityIndex} and are expired by a single timing-wheel thread, so an abandoned
+ * checkout costs no database writes. Consuming or releasing a hold cancels its timeout, so the wheel only
+ * carries live holds.
+ */
+@Service
+public class SlotHoldService {
+    static final int MAX_HOLDS = 200_000;
+    static final int MAX_HOLDS_PER_PATIENT = 3;
+
+    private record Hold(String token, String healthId, Long doctorId, LocalDate date, LocalTime time, Instant expiresAt) {}
+
+    private final SlotAvailabilityIndex slotIndex;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, HashedTimingWheel.Timeout<Hold>> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> holdsPerPatient = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<Hold> wheel;
+
+    @Autowired
+    public SlotHoldService(SlotAvailabilityIndex slotIndex,
+                           @Value("${appointments.hold.ttl-seconds:300}") long ttlSeconds) {
+        this(slotIndex, ttlSeconds * 1000, true);
+    }
+
+    // startTicker=false leaves the wheel to be advanced by hand (tests)
+    SlotHoldService(SlotAvailabilityIndex slotIndex, long ttlMillis, boolean startTicker) {
+        this.slotIndex = slotIndex;
+        this.ttlMillis = ttlMillis;
+        this.wheel = new HashedTimingWheel<>(1000, 512, this::expire);
+        if (startTicker) wheel.start("slot-hold-expiry");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+    }
+
+    /**
+     * Holds a free slot for the TTL. The caller has checked that the patient exists. Throws if the slot is taken,
+     * the patient already has {@link #MAX_HOLDS_PER_PATIENT} holds, or the hold table is full.
+     */
+    public SlotHold place(String healthId, Long doctorId, LocalDate date, LocalTime time,
+                          Supplier<? extends Collection<Appointment>> loader) {
+        if (healthId == null) {
+            throw new IllegalArgumentException("Patient not found");
+        }
+        if (!slotIndex.isBookable(doctorId, date, time)) {
+            throw new IllegalArgumentException("Time is not a bookable slot");
+        }
+        if (holds.size() >= MAX_HOLDS) {
+            throw new IllegalArgumentException("Too many active holds, try again shortly");
+        }
+        boolean[] counted = new boolean[1];
+        holdsPerPatient.compute(healthId, (k, n) -> {
+            int current = n == null ? 0 : n;
+            if (current >= MAX_HOLDS_PER_PATIENT) return n;
+            counted[0] = true;
+            return current + 1;
+        });
+        if (!counted[0]) {
+            throw new IllegalArgumentException("At most " + MAX_HOLDS_PER_PATIENT + " slots can be held at once");
+        }
+        boolean taken = false;
+        try {
+            taken = slotIndex.hold(doctorId, date, time, loader);
+        } finally {
+            if (!taken) uncount(healthId);
+        }
+        if (!taken) {
+            throw new IllegalArgumentException("Slot already booked");
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), healthId, doctorId, date, time, Instant.now().plusMillis(ttlMillis));
+        holds.put(hold.token(), wheel.schedule(hold, ttlMillis));
+        return new SlotHold(hold.token(), doctorId, date, time, hold.expiresAt());
+    }
+
+    /**
+     * Turns a live hold into a booking: the hold is removed but its slot stays taken. Returns false if the
+     * token is unknown, expired, or for a different patient or slot. An expired hold that the wheel has not
+     * reached yet is dropped here, so its slot is free for the caller to claim normally.
+     */
+    public boolean consume(String token, String healthId, Long doctorId, LocalDate date, LocalTime time) {
+        HashedTimingWheel.Timeout<Hold> timeout = holds.get(token);
+        Hold hold = timeout != null ? timeout.value() : null;
+        if (hold == null || !hold.healthId().equals(healthId) || !hold.doctorId().equals(doctorId)
+                || !hold.date().equals(date) || !hold.time().equals(time)) {
+            return false;
+        }
+        if (hold.expiresAt().isBefore(Instant.now())) {
+            expire(hold);
+            return false;
+        }
+        if (!holds.remove(token, timeout)) return false;
+        timeout.cancel();
+        uncount(hold.healthId());
+        slotIndex.unhold(doctorId, date, time, true);
+        return true;
+    }
+
+    /** Gives a held slot back early. */
+    public void release(String token) {
+        HashedTimingWheel.Timeout<Hold> timeout = holds.remove(token);
+        if (timeout != null) {
+            timeout.cancel();
+            Hold hold = timeout.value();
+            uncount(hold.healthId());
+            slotIndex.unhold(hold.doctorId(), hold.date(), hold.time(), false);
+        }
+    }
+
+    public int activeHolds() { return holds.size(); }
+
+    private void expire(Hold hold) {
+        // Tokens are unique, so a hold still under its token is this one; consumed or released holds are already gone
+        HashedTimingWheel.Timeout<Hold> timeout = holds.remove(hold.token());
+        if (timeout != null) {
+            timeout.cancel();
+            uncount(hold.healthId());
+            slotIndex.unhold(hold.doctorId(), hold.date(), hold.time(), false);
+        }
+    }
+
+    private void uncount(String healthId) {
+        holdsPerPatient.computeIfPresent(healthId, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    HashedTimingWheel<?> wheel() { return wheel; }
+}
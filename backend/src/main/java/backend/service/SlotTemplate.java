@@ -0,0 +1,69 @@
+package backend.service;
+
+import backend.model.ScheduleBreak;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable list of slot start times for one doctor on one weekday. Slot {@code i} maps to bit {@code i}
+ * of the day's occupancy word, so a day holds at most 64 slots.
+ */
+public final class SlotTemplate {
+    public static final int MAX_SLOTS = Long.SIZE;
+    public static final SlotTemplate DEFAULT = compile(LocalTime.of(9, 0), LocalTime.of(17, 0), 30, List.of());
+    public static final SlotTemplate CLOSED = new SlotTemplate(new LocalTime[0]);
+
+    private final LocalTime[] starts;
+    private final long mask;
+
+    private SlotTemplate(LocalTime[] starts) {
+        this.starts = starts;
+        this.mask = starts.length == MAX_SLOTS ? -1L : (1L << starts.length) - 1;
+    }
+
+    /** Slots of {@code slotMinutes} from {@code start} that end by {@code end} and do not overlap a break. */
+    public static SlotTemplate compile(LocalTime start, LocalTime end, int slotMinutes, Collection<ScheduleBreak> breaks) {
+        if (slotMinutes < 5) throw new IllegalArgumentException("Slot length must be at least 5 minutes");
+        if (!start.isBefore(end)) throw new IllegalArgumentException("Start time must be before end time");
+        int from = start.toSecondOfDay() / 60;
+        int to = end.toSecondOfDay() / 60;
+        List<LocalTime> starts = new ArrayList<>();
+        for (int m = from; m + slotMinutes <= to; m += slotMinutes) {
+            int slotStart = m;
+            int slotEnd = m + slotMinutes;
+            boolean inBreak = breaks.stream().anyMatch(b ->
+                    slotStart < b.getBreakEnd().toSecondOfDay() / 60 && b.getBreakStart().toSecondOfDay() / 60 < slotEnd);
+            if (!inBreak) starts.add(LocalTime.of(m / 60, m % 60));
+        }
+        if (starts.size() > MAX_SLOTS) {
+            throw new IllegalArgumentException("A day can have at most " + MAX_SLOTS + " slots");
+        }
+        return new SlotTemplate(starts.toArray(new LocalTime[0]));
+    }
+
+    public int size() { return starts.length; }
+
+    public LocalTime timeAt(int slot) { return starts[slot]; }
+
+    /** Bit index of {@code time}, or -1 if it is not a slot start in this template. */
+    public int indexOf(LocalTime time) {
+        if (time == null) return -1;
+        int i = Arrays.binarySearch(starts, time);
+        return i >= 0 ? i : -1;
+    }
+
+    /** Free slot start times for an occupancy word, in ascending order. */
+    public List<LocalTime> freeSlots(long occupied) {
+        long free = ~occupied & mask;
+        List<LocalTime> slots = new ArrayList<>(Long.bitCount(free));
+        while (free != 0) {
+            slots.add(starts[Long.numberOfTrailingZeros(free)]);
+            free &= free - 1;
+        }
+        return slots;
+    }
+}
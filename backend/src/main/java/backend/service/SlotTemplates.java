@@ -0,0 +1,53 @@
+package backend.service;
+
+import backend.model.DoctorSchedule;
+import backend.repository.DoctorScheduleRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled weekly slot templates per doctor. A doctor's schedule is read and compiled once, on first use,
+ * and kept until {@link #invalidate} is called for that doctor.
+ */
+@Component
+public class SlotTemplates {
+    private static final SlotTemplate[] DEFAULT_WEEK = week(SlotTemplate.DEFAULT);
+
+    private final DoctorScheduleRepository scheduleRepo;
+    private final ConcurrentHashMap<Long, SlotTemplate[]> weeks = new ConcurrentHashMap<>();
+
+    public SlotTemplates(DoctorScheduleRepository scheduleRepo) {
+        this.scheduleRepo = scheduleRepo;
+    }
+
+    public SlotTemplate forDay(Long doctorId, LocalDate date) {
+        SlotTemplate[] week = weeks.get(doctorId);
+        if (week == null) week = weeks.computeIfAbsent(doctorId, id -> compile(scheduleRepo.findByDoctorId(id)));
+        return week[date.getDayOfWeek().ordinal()];
+    }
+
+    public void invalidate(Long doctorId) {
+        weeks.remove(doctorId);
+    }
+
+    // Days without a row are closed, unless the doctor has no rows at all
+    static SlotTemplate[] compile(List<DoctorSchedule> schedule) {
+        if (schedule.isEmpty()) return DEFAULT_WEEK;
+        SlotTemplate[] week = week(SlotTemplate.CLOSED);
+        for (DoctorSchedule day : schedule) {
+            week[day.getDayOfWeek().ordinal()] =
+                    SlotTemplate.compile(day.getStartTime(), day.getEndTime(), day.getSlotMinutes(), day.getBreaks());
+        }
+        return week;
+    }
+
+    private static SlotTemplate[] week(SlotTemplate template) {
+        SlotTemplate[] week = new SlotTemplate[7];
+        Arrays.fill(week, template);
+        return week;
+    }
+}
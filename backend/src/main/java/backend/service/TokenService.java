@@ -0,0 +1,98 @@
+package backend.service;
+
+import backend.dto.TokenPair;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HMAC-signed session tokens. Only login pays for BCrypt; afterwards a request is
+ * authenticated by checking the token signature and expiry, with the key and parser built once here.
+ * <p>
+ * Access tokens are short-lived; refresh tokens live longer and can only be exchanged for a new pair. Tokens are
+ * stateless, so they stay valid until they expire. Without {@code security.jwt.secret} a random key is generated
+ * at startup, which logs everyone out on restart and does not work across several instances.
+ */
+@Service
+public class TokenService {
+    public enum Role { PATIENT, DOCTOR }
+
+    public record Principal(Role role, String subject) {}
+
+    private static final String ROLE_CLAIM = "role";
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public TokenService(@Value("${security.jwt.secret:}") String secret,
+                        @Value("${security.jwt.access-ttl:15m}") Duration accessTtl,
+                        @Value("${security.jwt.refresh-ttl:7d}") Duration refreshTtl) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).setAllowedClockSkewSeconds(30).build();
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public TokenPair issue(Role role, String subject) {
+        return new TokenPair(sign(role, subject, ACCESS, accessTtl), sign(role, subject, REFRESH, refreshTtl),
+                accessTtl.toSeconds());
+    }
+
+    public Principal verifyAccess(String token) {
+        return verify(token, ACCESS);
+    }
+
+    /** Exchanges a valid refresh token for a new access/refresh pair. */
+    public TokenPair refresh(String refreshToken) {
+        Principal p = verify(refreshToken, REFRESH);
+        return issue(p.role(), p.subject());
+    }
+
+    private String sign(Role role, String subject, String type, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .claim(ROLE_CLAIM, role.name())
+                .claim(TYPE_CLAIM, type)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Principal verify(String token, String type) {
+        if (token == null || token.isBlank()) throw new InvalidTokenException("Missing token");
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (!type.equals(claims.get(TYPE_CLAIM, String.class))) throw new InvalidTokenException("Invalid or expired token");
+            return new Principal(Role.valueOf(claims.get(ROLE_CLAIM, String.class)), claims.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid or expired token");
+        }
+    }
+}
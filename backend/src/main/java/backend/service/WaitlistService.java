@@ -0,0 +1,128 @@
+package backend.service;
+
+import backend.dto.WaitlistRow;
+import backend.model.Appointment;
+import backend.model.Doctor;
+import backend.model.Patient;
+import backend.model.WaitlistEntry;
+import backend.repository.AppointmentRepository;
+import backend.repository.DoctorRepository;
+import backend.repository.WaitlistEntryRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per doctor/day waitlists. When a slot is freed the first waiting patient gets it as a new
+ * {@code PENDING} appointment. Promotion runs on the waitlist executor so cancelling stays fast.
+ */
+@Service
+public class WaitlistService {
+    private final WaitlistEntryRepository waitlistRepo;
+    private final AppointmentRepository apptRepo;
+    private final DoctorRepository doctorRepo;
+    private final PatientResolver patientResolver;
+    private final SlotAvailabilityIndex slotIndex;
+
+    public WaitlistService(WaitlistEntryRepository waitlistRepo, AppointmentRepository apptRepo, DoctorRepository doctorRepo,
+                           PatientResolver patientResolver, SlotAvailabilityIndex slotIndex) {
+        this.waitlistRepo = waitlistRepo;
+        this.apptRepo = apptRepo;
+        this.doctorRepo = doctorRepo;
+        this.patientResolver = patientResolver;
+        this.slotIndex = slotIndex;
+    }
+
+    public WaitlistRow join(String healthId, Long doctorId, LocalDate date) {
+        Patient patient = patientResolver.resolve(healthId);
+        Doctor doctor = doctorRepo.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        if (date.isBefore(LocalDate.now())) throw new IllegalArgumentException("Date is in the past");
+        if (waitlistRepo.existsByPatientIdAndDoctorIdAndDate(patient.getId(), doctorId, date)) {
+            throw new IllegalArgumentException("Already on the waitlist");
+        }
+        WaitlistEntry e = new WaitlistEntry();
+        e.setPatient(patient);
+        e.setDoctor(doctor);
+        e.setDate(date);
+        WaitlistEntry saved;
+        try {
+            saved = waitlistRepo.save(e);
+        } catch (DataIntegrityViolationException ex) {
+            throw new IllegalArgumentException("Already on the waitlist");
+        }
+        WaitlistRow row = new WaitlistRow(saved.getId(), date, saved.getCreatedAt(), healthId, patient.getFullName());
+        row.position = (int) waitlistRepo.countUpTo(doctorId, date, saved.getCreatedAt(), saved.getId());
+        return row;
+    }
+
+    public List<WaitlistRow> list(Long doctorId, LocalDate date) {
+        List<WaitlistRow> rows = waitlistRepo.findRows(doctorId, date);
+        for (int i = 0; i < rows.size(); i++) rows.get(i).position = i + 1;
+        return rows;
+    }
+
+    public void leave(Long id) {
+        waitlistRepo.deleteEntry(id);
+    }
+
+    @Async("waitlistExecutor")
+    @EventListener
+    public void onSlotFreed(SlotFreedEvent event) {
+        promote(event);
+    }
+
+    /**
+     * Books the freed slot for the first waiter. The slot is claimed in the occupancy index first, so of
+     * several promotions racing for the same slot only one proceeds; a waiter is handed out only to the
+     * promotion that manages to delete its entry. Returns the new appointment, or null if the slot was
+     * taken again, is in the past, or nobody is waiting.
+     */
+    Appointment promote(SlotFreedEvent event) {
+        if (event.date().atTime(event.time()).isBefore(LocalDateTime.now())) return null;
+        Optional<Doctor> doctor = doctorRepo.findById(event.doctorId());
+        if (doctor.isEmpty()) return null;
+        if (!slotIndex.claim(event.doctorId(), event.date(), event.time(),
+                () -> apptRepo.findByDoctorAndDate(doctor.get(), event.date()))) {
+            return null;
+        }
+        boolean keepSlot = false;
+        try {
+            for (WaitlistEntry e : waitlistRepo.findTop20ByDoctorIdAndDateOrderByCreatedAtAscIdAsc(event.doctorId(), event.date())) {
+                if (waitlistRepo.deleteEntry(e.getId()) == 0) continue;
+                Appointment a = new Appointment();
+                a.setPatient(e.getPatient());
+                a.setDoctor(doctor.get());
+                a.setDate(event.date());
+                a.setTime(event.time());
+                a.setStatus(Appointment.Status.PENDING);
+                try {
+                    Appointment saved = apptRepo.save(a);
+                    keepSlot = true;
+                    return saved;
+                } catch (DataIntegrityViolationException ex) {
+                    // Booked through another instance meanwhile: the slot stays taken, the waiter keeps their place
+                    keepSlot = true;
+                    requeue(e);
+                    return null;
+                } catch (RuntimeException ex) {
+                    requeue(e);
+                    throw ex;
+                }
+            }
+            return null;
+        } finally {
+            if (!keepSlot) slotIndex.release(event.doctorId(), event.date(), event.time());
+        }
+    }
+
+    private void requeue(WaitlistEntry e) {
+        e.setId(null);
+        waitlistRepo.save(e);
+    }
+}
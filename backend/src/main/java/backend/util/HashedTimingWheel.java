@@ -0,0 +1,116 @@
+package backend.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: timeouts are dropped into one of {@code wheelSize} buckets by deadline tick and a
+ * single thread sweeps one bucket per tick. Scheduling is O(1) and there is no per-timeout task or thread.
+ * A cancelled timeout is unlinked from its bucket and never fires, so short-lived entries do not pile up for
+ * their full delay.
+ */
+public class HashedTimingWheel<T> {
+    private static final int PENDING = 0, FIRED = 1, CANCELLED = 2;
+
+    /** Handle to a scheduled value; exactly one of firing and {@link #cancel()} wins. */
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private final Queue<Timeout<T>> bucket;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(T value, long deadlineTick, Queue<Timeout<T>> bucket) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+            this.bucket = bucket;
+        }
+
+        public T value() { return value; }
+
+        /** Stops the timeout from firing. Returns false if it already fired or was cancelled. */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) return false;
+            bucket.remove(this);
+            return true;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Timeout<T>>[] buckets;
+    private final Consumer<T> onExpire;
+    private volatile long tick;
+    private ScheduledExecutorService ticker;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new ConcurrentLinkedQueue<>();
+        this.onExpire = onExpire;
+    }
+
+    /** Starts a daemon thread that advances the wheel every tick. */
+    public synchronized void start(String threadName) {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) ticker.shutdownNow();
+        ticker = null;
+    }
+
+    /** Schedules {@code value} to expire after at least {@code delayMillis}. */
+    public Timeout<T> schedule(T value, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        // +1 so a bucket that is being swept right now never receives an entry meant for the current tick
+        long deadline = tick + ticks + 1;
+        Queue<Timeout<T>> bucket = buckets[(int) (deadline & mask)];
+        Timeout<T> timeout = new Timeout<>(value, deadline, bucket);
+        bucket.add(timeout);
+        return timeout;
+    }
+
+    /** Moves the wheel forward one tick and fires everything due in that bucket. */
+    public void advance() {
+        long now = ++tick;
+        Queue<Timeout<T>> bucket = buckets[(int) (now & mask)];
+        for (int n = bucket.size(); n > 0; n--) {
+            Timeout<T> t = bucket.poll();
+            if (t == null) break;
+            if (t.state.get() != PENDING) continue; // cancelled while the sweep had it out of the queue
+            if (t.deadlineTick > now) {
+                bucket.add(t); // due in a later round of the wheel
+                continue;
+            }
+            if (!t.state.compareAndSet(PENDING, FIRED)) continue;
+            try {
+                onExpire.accept(t.value);
+            } catch (RuntimeException ignored) {
+                // one failing handler must not stop the sweep
+            }
+        }
+    }
+
+    public long tickMillis() { return tickMillis; }
+
+    // Entries still linked into buckets, fired or not (tests)
+    int pending() {
+        int n = 0;
+        for (Queue<Timeout<T>> bucket : buckets) n += bucket.size();
+        return n;
+    }
+}
@@ -0,0 +1,74 @@
+package backend.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded map that evicts the least recently used entries, with hit/miss/eviction counters. The bound is either
+ * an entry count or a total weight (e.g. bytes) computed per value.
+ * All operations take the cache's monitor, which is cheap next to the database lookups it saves.
+ */
+public class LruCache<K, V> {
+    /** For count-bounded caches weight equals size. */
+    public record Stats(long hits, long misses, long evictions, int size, long weight, long maxWeight) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(int maxSize) {
+        this(maxSize, v -> 1);
+    }
+
+    public LruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight < 1) throw new IllegalArgumentException("maxWeight must be positive");
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        V value = map.get(key);
+        if (value != null) hits++;
+        else misses++;
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        V old = map.put(key, value);
+        if (old != null) weight -= weigher.applyAsLong(old);
+        weight += weigher.applyAsLong(value);
+        // The newest entry is kept even if it alone exceeds the bound
+        Iterator<Map.Entry<K, V>> eldest = map.entrySet().iterator();
+        while (weight > maxWeight && map.size() > 1) {
+            Map.Entry<K, V> e = eldest.next();
+            weight -= weigher.applyAsLong(e.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void remove(K key) {
+        V old = map.remove(key);
+        if (old != null) weight -= weigher.applyAsLong(old);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, map.size(), weight, maxWeight);
+    }
+}
@@ -1,12 +1,15 @@
 package backend.util;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 
 import java.awt.image.BufferedImage;
+import java.util.Map;
 
 public class QrCodeUtil {
     public static BufferedImage generateQrImage(String text, int width, int height) throws WriterException {
@@ -14,4 +17,19 @@ public class QrCodeUtil {
         BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height);
         return MatrixToImageWriter.toBufferedImage(bitMatrix);
     }
+
+    /** The bare module grid, one bit per module and no quiet zone, at ZXing's default error correction (L). */
+    public static BitMatrix encodeModules(String text) throws WriterException {
+        return encodeModules(text, ErrorCorrectionLevel.L);
+    }
+
+    public static BitMatrix encodeModules(String text, ErrorCorrectionLevel errorCorrection) throws WriterException {
+        Map<EncodeHintType, Object> hints = Map.of(EncodeHintType.MARGIN, 0, EncodeHintType.ERROR_CORRECTION, errorCorrection);
+        return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    /** Same picture as {@link #generateQrImage}, encoded as a 1-bit PNG without going through a BufferedImage. */
+    public static byte[] generateQrPng(String text, int width, int height) throws WriterException {
+        return QrPngEncoder.encode(encodeModules(text), width, height);
+    }
 }
@@ -0,0 +1,159 @@
+package backend.util;
+
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a QR {@link BitMatrix} (one bit per module, no quiet zone) straight to a 1-bit grayscale PNG. Modules are
+ * scaled while rows are emitted, so no ARGB raster or ImageIO writer is involved. The layout is the same as ZXing's
+ * own rendering: the largest whole-pixel module size that leaves the quiet zone (4 modules unless given), centred in
+ * the output.
+ * <p>
+ * Each thread keeps its Deflater, CRC and buffers between calls; the buffers grow to the largest image encoded,
+ * about 130 KB at 1024x1024.
+ */
+public final class QrPngEncoder {
+    public static final int QUIET_ZONE = 4;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+    private static final byte WHITE = (byte) 0xFF;
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_UP = 2;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private QrPngEncoder() {
+    }
+
+    public static byte[] encode(BitMatrix modules, int width, int height) {
+        return encode(modules, width, height, QUIET_ZONE);
+    }
+
+    public static byte[] encode(BitMatrix modules, int width, int height, int quietZone) {
+        int inputWidth = modules.getWidth();
+        int inputHeight = modules.getHeight();
+        int outputWidth = Math.max(width, inputWidth + 2 * quietZone);
+        int outputHeight = Math.max(height, inputHeight + 2 * quietZone);
+        int multiple = Math.min(outputWidth / (inputWidth + 2 * quietZone), outputHeight / (inputHeight + 2 * quietZone));
+        int left = (outputWidth - inputWidth * multiple) / 2;
+        int top = (outputHeight - inputHeight * multiple) / 2;
+
+        // Scanlines: a filter byte then 1 bit per pixel, MSB first, 1 = white. A row that repeats the one above is
+        // written with the Up filter, which turns it into zeros that deflate to almost nothing even at BEST_SPEED.
+        int stride = 1 + (outputWidth + 7) / 8;
+        Scratch s = SCRATCH.get();
+        byte[] raw = s.raw(stride * outputHeight);
+        int y = 0;
+        for (; y < top; y++) {
+            if (y == 0) whiteRow(raw, 0, stride);
+            else repeatRow(raw, y * stride, stride);
+        }
+        for (int my = 0; my < inputHeight; my++) {
+            int row = y * stride;
+            whiteRow(raw, row, stride);
+            for (int mx = 0; mx < inputWidth; mx++) {
+                if (!modules.get(mx, my)) continue;
+                for (int px = left + mx * multiple, end = px + multiple; px < end; px++) {
+                    raw[row + 1 + (px >>> 3)] &= (byte) ~(0x80 >>> (px & 7));
+                }
+            }
+            y++;
+            for (int r = 1; r < multiple; r++, y++) {
+                repeatRow(raw, y * stride, stride);
+            }
+        }
+        for (int bottom = y; y < outputHeight; y++) {
+            if (y == bottom) whiteRow(raw, y * stride, stride);
+            else repeatRow(raw, y * stride, stride);
+        }
+
+        s.pos = 0;
+        s.write(SIGNATURE, 0, SIGNATURE.length);
+        int start = s.beginChunk(IHDR);
+        s.writeInt(outputWidth);
+        s.writeInt(outputHeight);
+        s.write(new byte[]{1, 0, 0, 0, 0}, 0, 5); // bit depth 1, grayscale, deflate, adaptive filtering, no interlace
+        s.endChunk(start);
+        start = s.beginChunk(IDAT);
+        s.deflate(raw, stride * outputHeight);
+        s.endChunk(start);
+        s.endChunk(s.beginChunk(IEND));
+        return Arrays.copyOf(s.out, s.pos);
+    }
+
+    private static void whiteRow(byte[] raw, int offset, int stride) {
+        raw[offset] = FILTER_NONE;
+        Arrays.fill(raw, offset + 1, offset + stride, WHITE);
+    }
+
+    private static void repeatRow(byte[] raw, int offset, int stride) {
+        raw[offset] = FILTER_UP;
+        Arrays.fill(raw, offset + 1, offset + stride, (byte) 0);
+    }
+
+    private static final class Scratch {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32 crc = new CRC32();
+        private byte[] raw = new byte[0];
+        private byte[] out = new byte[4096];
+        private int pos;
+
+        byte[] raw(int length) {
+            if (raw.length < length) raw = new byte[length];
+            return raw;
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, out, pos, len);
+            pos += len;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            out[pos++] = (byte) (v >>> 24);
+            out[pos++] = (byte) (v >>> 16);
+            out[pos++] = (byte) (v >>> 8);
+            out[pos++] = (byte) v;
+        }
+
+        // Leaves room for the length, writes the type; returns where the length goes
+        int beginChunk(byte[] type) {
+            int start = pos;
+            writeInt(0);
+            write(type, 0, type.length);
+            return start;
+        }
+
+        void endChunk(int start) {
+            int length = pos - start - 8;
+            int at = pos;
+            pos = start;
+            writeInt(length);
+            pos = at;
+            crc.reset();
+            crc.update(out, start + 4, length + 4);
+            writeInt((int) crc.getValue());
+        }
+
+        void deflate(byte[] input, int length) {
+            deflater.reset();
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                ensure(4096);
+                pos += deflater.deflate(out, pos, out.length - pos);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > out.length) out = Arrays.copyOf(out, Math.max(out.length * 2, pos + extra));
+        }
+    }
+}
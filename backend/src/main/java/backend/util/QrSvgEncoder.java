@@ -0,0 +1,39 @@
+package backend.util;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Writes a QR {@link BitMatrix} (one bit per module, no quiet zone) as an SVG document. The viewBox is in module
+ * units and the dark modules form a single path, one rectangle per horizontal run, so the output is a few KB at
+ * most and renders crisply at any print size.
+ */
+public final class QrSvgEncoder {
+
+    private QrSvgEncoder() {
+    }
+
+    public static String encode(BitMatrix modules, int size, int quietZone) {
+        int inputWidth = modules.getWidth();
+        int inputHeight = modules.getHeight();
+        StringBuilder svg = new StringBuilder(256 + inputWidth * inputHeight);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(inputWidth + 2 * quietZone).append(' ').append(inputHeight + 2 * quietZone)
+                .append("\" width=\"").append(size).append("\" height=\"").append(size)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+        for (int y = 0; y < inputHeight; y++) {
+            int x = 0;
+            while (x < inputWidth) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < inputWidth && modules.get(x, y)) x++;
+                int run = x - start;
+                svg.append('M').append(start + quietZone).append(' ').append(y + quietZone)
+                        .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+        return svg.append("\"/></svg>").toString();
+    }
+}
@@ -1,5 +1,6 @@
 package backend;
 
+import backend.config.AsyncConfig;
 import backend.dto.LoginRequest;
 import backend.dto.RegisterRequest;
 import backend.dto.RegisterResponse;
@@ -7,10 +8,16 @@ import backend.model.Appointment;
 import backend.model.Doctor;
 import backend.model.Patient;
 import backend.repository.PatientRepository;
+import backend.service.HealthIdGenerator;
+import backend.service.PasswordHasher;
+import backend.service.PatientSearchIndex;
 import backend.service.PatientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -48,7 +55,11 @@ public class AssertionsDemoTest {
     @Mock
     private PatientRepository patientRepository;
     
+    @Mock
+    private PatientSearchIndex searchIndex;
+    
     private PatientService patientService;
+    private ThreadPoolTaskExecutor hashExecutor;
     private RegisterRequest validRequest;
     
     @BeforeClass(alwaysRun = true)
@@ -62,7 +73,9 @@ public class AssertionsDemoTest {
     @BeforeMethod(alwaysRun = true)
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        patientService = new PatientService(patientRepository);
+        hashExecutor = new AsyncConfig().passwordHashExecutor(2, 16);
+        patientService = new PatientService(patientRepository, new HealthIdGenerator(1),
+            new PasswordHasher(hashExecutor, new SimpleMeterRegistry(), 4, 0), searchIndex);
         
         // Create a valid registration request
         validRequest = new RegisterRequest();
@@ -74,6 +87,11 @@ public class AssertionsDemoTest {
         validRequest.dateOfBirth = LocalDate.of(1990, 5, 15);
     }
     
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        hashExecutor.shutdown();
+    }
+    
     // ============================================================
     // 1. assertEquals - Verify expected values match
     // ============================================================
@@ -6,8 +6,13 @@ import backend.model.MedicalRecord;
 import backend.model.Patient;
 import backend.repository.AppointmentRepository;
 import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
 import backend.repository.PatientRepository;
 import backend.service.AppointmentService;
+import backend.service.PatientResolver;
+import backend.service.SlotAvailabilityIndex;
+import backend.service.SlotHoldService;
+import backend.service.SlotTemplates;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.testng.Assert;
@@ -52,8 +57,11 @@ public class FixturesDemoTest {
     private DoctorRepository doctorRepository;
     @Mock
     private AppointmentRepository appointmentRepository;
+    @Mock
+    private DoctorScheduleRepository scheduleRepository;
     
     private AppointmentService appointmentService;
+    private SlotHoldService slotHoldService;
     
     // Test data
     private Patient testPatient;
@@ -163,7 +171,10 @@ public class FixturesDemoTest {
         MockitoAnnotations.openMocks(this);
         
         // Create service with mocked repositories
-        appointmentService = new AppointmentService(appointmentRepository, doctorRepository, patientRepository);
+        SlotAvailabilityIndex slotIndex = new SlotAvailabilityIndex(new SlotTemplates(scheduleRepository));
+        slotHoldService = new SlotHoldService(slotIndex, 300);
+        appointmentService = new AppointmentService(appointmentRepository, doctorRepository, new PatientResolver(patientRepository, 1000),
+                slotIndex, slotHoldService, event -> {});
         
         System.out.println("✓ Mockito initialized");
         System.out.println("✓ Mock repositories created");
@@ -184,8 +195,11 @@ public class FixturesDemoTest {
         System.out.println("");
         
         // Cleanup class-level resources
+        slotHoldService.shutdown();
+        slotHoldService = null;
         appointmentService = null;
         
+        System.out.println("✓ Hold expiry thread stopped");
         System.out.println("✓ Service reference cleared");
         System.out.println("✓ Class cleanup complete");
     }
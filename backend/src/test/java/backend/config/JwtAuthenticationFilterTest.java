@@ -0,0 +1,153 @@
+package backend.config;
+
+import backend.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Unit tests for JwtAuthenticationFilter
+ */
+public class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String PROTECTED = "/api/appointments/mine";
+    private static final String PUBLIC = "/api/doctors";
+
+    private TokenService tokens;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeMethod
+    public void setUp() {
+        tokens = new TokenService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7));
+        filter = new JwtAuthenticationFilter(tokens, List.of("/api/admin/**", " /api/reports/** ", PROTECTED, ""));
+    }
+
+    private static MockHttpServletRequest get(String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (token != null) request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private String valid() {
+        return tokens.issue(TokenService.Role.PATIENT, "HEALTH123456").accessToken;
+    }
+
+    private static String expired() {
+        return new TokenService(SECRET, Duration.ofMinutes(-5), Duration.ofDays(7))
+            .issue(TokenService.Role.PATIENT, "HEALTH123456").accessToken;
+    }
+
+    @Test(groups = {"unit"})
+    public void testProtectedPath_ValidTokenPassesWithPrincipal() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = get(PROTECTED, valid());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        Assert.assertSame(chain.getRequest(), request);
+        Assert.assertEquals(request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE),
+            new TokenService.Principal(TokenService.Role.PATIENT, "HEALTH123456"));
+    }
+
+    @Test(groups = {"unit"})
+    public void testProtectedPath_ExpiredTokenIsRejected() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(get(PROTECTED, expired()), response, chain);
+
+        // Assert
+        Assert.assertEquals(response.getStatus(), 401);
+        Assert.assertEquals(response.getHeader(HttpHeaders.WWW_AUTHENTICATE), "Bearer");
+        Assert.assertNull(chain.getRequest());
+    }
+
+    @Test(groups = {"unit"})
+    public void testProtectedPath_MissingTokenIsRejected() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(get(PROTECTED, null), response, chain);
+
+        // Assert
+        Assert.assertEquals(response.getStatus(), 401);
+        Assert.assertEquals(response.getContentAsString(), "{\"error\":\"Authentication required\"}");
+        Assert.assertNull(chain.getRequest());
+    }
+
+    @Test(groups = {"unit"})
+    public void testProtectedPattern_CoversNestedPathsButNotPreflight() throws Exception {
+        // Arrange
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse preflight = new MockHttpServletResponse();
+        MockFilterChain preflightChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(get("/api/reports/export/appointments.pdf", null), nested, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("OPTIONS", "/api/admin/appointments"), preflight, preflightChain);
+
+        // Assert
+        Assert.assertEquals(nested.getStatus(), 401);
+        Assert.assertEquals(preflight.getStatus(), 200);
+        Assert.assertNotNull(preflightChain.getRequest());
+    }
+
+    @Test(groups = {"unit"})
+    public void testPublicPath_ValidTokenPassesWithPrincipal() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = get(PUBLIC, valid());
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        Assert.assertSame(chain.getRequest(), request);
+        Assert.assertNotNull(request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE));
+    }
+
+    @Test(groups = {"unit"})
+    public void testPublicPath_ExpiredTokenIsStillRejected() throws Exception {
+        // Arrange: a token that is sent is always checked, so the client learns to refresh it
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(get(PUBLIC, expired()), response, chain);
+
+        // Assert
+        Assert.assertEquals(response.getStatus(), 401);
+        Assert.assertNull(chain.getRequest());
+    }
+
+    @Test(groups = {"unit"})
+    public void testPublicPath_MissingTokenPassesAnonymously() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = get(PUBLIC, null);
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        Assert.assertSame(chain.getRequest(), request);
+        Assert.assertNull(request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE));
+    }
+}
@@ -123,10 +123,10 @@ public class ModelTest {
     }
     
     @Test(groups = {"model"})
-    public void testDoctor_SetAndGetPhoto() {
-        byte[] photoData = {0x01, 0x02, 0x03};
-        doctor.setPhoto(photoData);
-        Assert.assertEquals(doctor.getPhoto(), photoData);
+    public void testDoctor_SetAndGetPhotoHash() {
+        String hash = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+        doctor.setPhotoHash(hash);
+        Assert.assertEquals(doctor.getPhotoHash(), hash);
     }
     
     @Test(groups = {"model"})
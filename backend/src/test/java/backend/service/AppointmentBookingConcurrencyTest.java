@@ -0,0 +1,179 @@
+package backend.service;
+
+import backend.model.Appointment;
+import backend.model.Doctor;
+import backend.model.Patient;
+import backend.repository.AppointmentRepository;
+import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
+import backend.repository.PatientRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stress tests for concurrent booking in AppointmentService.
+ * The mocked repository enforces the (doctor, date, time) unique slot index like the database would,
+ * so any double-booking that slips past the service shows up as a constraint violation.
+ */
+public class AppointmentBookingConcurrencyTest {
+
+    private static final int DOCTORS = 16;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 2_000;
+
+    private AppointmentService appointmentService;
+    private Map<String, Appointment> slotTable;
+    private Map<Long, Appointment> byId;
+    private AtomicInteger constraintViolations;
+    private AtomicLong ids;
+    private LocalDate date;
+
+    @BeforeMethod
+    public void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+        DoctorRepository doctorRepository = mock(DoctorRepository.class, withSettings().stubOnly());
+        PatientRepository patientRepository = mock(PatientRepository.class, withSettings().stubOnly());
+
+        slotTable = new ConcurrentHashMap<>();
+        byId = new ConcurrentHashMap<>();
+        constraintViolations = new AtomicInteger();
+        ids = new AtomicLong();
+        date = LocalDate.now().plusDays(1);
+
+        Patient patient = new Patient();
+        patient.setId(1L);
+        patient.setHealthId("HEALTH123456");
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(patient));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+
+        for (long id = 1; id <= DOCTORS; id++) {
+            Doctor doctor = new Doctor();
+            doctor.setId(id);
+            doctor.setName("Dr. " + id);
+            when(doctorRepository.findById(id)).thenReturn(Optional.of(doctor));
+        }
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class)))
+            .thenAnswer(i -> {
+                Doctor d = i.getArgument(0);
+                LocalDate day = i.getArgument(1);
+                return slotTable.values().stream()
+                    .filter(a -> a.getDoctor().getId().equals(d.getId()) && a.getDate().equals(day))
+                    .toList();
+            });
+        when(appointmentRepository.findById(any())).thenAnswer(i -> Optional.ofNullable(byId.get(i.<Long>getArgument(0))));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> {
+            Appointment a = i.getArgument(0);
+            String key = a.getDoctor().getId() + "|" + a.getDate() + "|" + a.getTime();
+            if (SlotAvailabilityIndex.isActive(a.getStatus())) {
+                Appointment holder = slotTable.putIfAbsent(key, a);
+                if (holder != null && holder != a) {
+                    constraintViolations.incrementAndGet();
+                    throw new DataIntegrityViolationException("uk_appointments_slot");
+                }
+            } else {
+                slotTable.remove(key, a);
+            }
+            if (a.getId() == null) a.setId(ids.incrementAndGet());
+            byId.put(a.getId(), a);
+            return a;
+        });
+
+        SlotAvailabilityIndex slotIndex = new SlotAvailabilityIndex(
+            new SlotTemplates(mock(DoctorScheduleRepository.class, withSettings().stubOnly())));
+        appointmentService = new AppointmentService(appointmentRepository, doctorRepository, new PatientResolver(patientRepository, 1000),
+            slotIndex, new SlotHoldService(slotIndex, 60_000, false), event -> {});
+    }
+
+    @Test(groups = {"unit", "service", "concurrency"})
+    public void testConcurrentBooking_NoDoubleBookings() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act: every thread hammers random doctors and slots, so most attempts collide
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    long doctorId = 1 + random.nextInt(DOCTORS);
+                    LocalTime time = SlotTemplate.DEFAULT.timeAt(random.nextInt(SlotTemplate.DEFAULT.size()));
+                    try {
+                        appointmentService.book("HEALTH123456", doctorId, date, time);
+                        booked.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        long elapsedMs = Math.max(1, (System.nanoTime() - began) / 1_000_000);
+        pool.shutdown();
+
+        // Assert
+        int totalSlots = DOCTORS * SlotTemplate.DEFAULT.size();
+        Assert.assertEquals(constraintViolations.get(), 0, "Service let a double-booking reach the database");
+        Assert.assertEquals(booked.get(), totalSlots, "Every slot should be booked exactly once");
+        Assert.assertEquals(slotTable.size(), totalSlots);
+        Assert.assertEquals(booked.get() + rejected.get(), THREADS * ATTEMPTS_PER_THREAD);
+        for (long id = 1; id <= DOCTORS; id++) {
+            Assert.assertTrue(appointmentService.availableSlots(id, date).isEmpty());
+        }
+        System.out.println("  Booking attempts: " + (THREADS * ATTEMPTS_PER_THREAD) + " in " + elapsedMs + " ms ("
+            + (THREADS * ATTEMPTS_PER_THREAD * 1000L / elapsedMs) + " ops/s)");
+    }
+
+    @Test(groups = {"unit", "service", "concurrency"})
+    public void testConcurrentCancelAndRebook_SlotNeverHeldTwice() throws Exception {
+        // Arrange: one popular slot that is booked, cancelled and re-booked by many threads
+        LocalTime time = LocalTime.of(9, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        Appointment a = appointmentService.book("HEALTH123456", 1L, date, time);
+                        appointmentService.cancel(a.getId());
+                    } catch (IllegalArgumentException ignored) {
+                        // slot currently held by another thread
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert
+        Assert.assertEquals(constraintViolations.get(), 0, "Slot was handed out while still held");
+        Assert.assertTrue(appointmentService.availableSlots(1L, date).contains(time));
+    }
+}
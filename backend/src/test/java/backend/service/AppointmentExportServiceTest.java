@@ -0,0 +1,170 @@
+package backend.service;
+
+import backend.model.Appointment;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.query.Query;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentExportService
+ */
+public class AppointmentExportServiceTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private StatelessSession session;
+
+    @Mock
+    private Query<Object[]> query;
+
+    @Mock
+    private ScrollableResults<Object[]> rows;
+
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(rows);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    private AppointmentExportService service(int fetchSize) {
+        return new AppointmentExportService(sessionFactory, new ObjectMapper(), fetchSize);
+    }
+
+    private static Object[] row(long id, String healthId) {
+        return new Object[]{id, LocalDate.of(2026, 3, 2), LocalTime.of(9, 30), Appointment.Status.CONFIRMED,
+            healthId, "Patient " + id, 7L, "Dr. Seven", "Cardiology"};
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWriteNdjson_OneObjectPerLineWithTrailingNewline() throws IOException {
+        // Arrange
+        AppointmentExportService export = service(AppointmentExportService.FETCH_SIZE);
+        when(rows.next()).thenReturn(true, true, false);
+        when(rows.get()).thenReturn(row(1, "HID000000001"), row(2, "HID000000002"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        export.writeNdjson(null, null, null, out);
+
+        // Assert
+        String body = out.toString(StandardCharsets.UTF_8);
+        Assert.assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n", -1);
+        Assert.assertEquals(lines.length, 3);
+        Assert.assertEquals(lines[2], "");
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        Assert.assertEquals(first.get("id").asLong(), 1L);
+        Assert.assertEquals(first.get("date").asText(), "2026-03-02");
+        Assert.assertEquals(first.get("time").asText(), "09:30");
+        Assert.assertEquals(first.get("status").asText(), "CONFIRMED");
+        Assert.assertEquals(first.get("patientHealthId").asText(), "HID000000001");
+        Assert.assertEquals(first.get("doctorId").asLong(), 7L);
+        Assert.assertEquals(new ObjectMapper().readTree(lines[1]).get("id").asLong(), 2L);
+        verify(rows).close();
+        verify(session).close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWriteNdjson_EmptyResultWritesNothing() throws IOException {
+        // Arrange
+        AppointmentExportService export = service(AppointmentExportService.FETCH_SIZE);
+        when(rows.next()).thenReturn(false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        export.writeNdjson(null, null, null, out);
+
+        // Assert
+        Assert.assertEquals(out.size(), 0);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWriteNdjson_BindsStatusAndDateFilters() throws IOException {
+        // Arrange
+        AppointmentExportService export = service(AppointmentExportService.FETCH_SIZE);
+        when(rows.next()).thenReturn(false);
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+
+        // Act
+        export.writeNdjson(Appointment.Status.PENDING, from, to, new ByteArrayOutputStream());
+
+        // Assert
+        verify(session).createQuery(contains("(:status is null or a.status = :status)"), eq(Object[].class));
+        verify(session).createQuery(contains("(:from is null or a.date >= :from)"), eq(Object[].class));
+        verify(session).createQuery(contains("(:to is null or a.date <= :to)"), eq(Object[].class));
+        verify(query).setParameter("status", Appointment.Status.PENDING);
+        verify(query).setParameter("from", from);
+        verify(query).setParameter("to", to);
+        verify(query).setReadOnly(true);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWriteNdjson_UnfilteredBindsNulls() throws IOException {
+        // Arrange
+        AppointmentExportService export = service(AppointmentExportService.FETCH_SIZE);
+        when(rows.next()).thenReturn(false);
+
+        // Act
+        export.writeNdjson(null, null, null, new ByteArrayOutputStream());
+
+        // Assert
+        verify(query).setParameter("status", null);
+        verify(query).setParameter("from", null);
+        verify(query).setParameter("to", null);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testFetchSize_MySqlStreamsRowByRow() {
+        Assert.assertEquals(AppointmentExportService.fetchSizeFor(new MySQLDialect()), Integer.MIN_VALUE);
+        Assert.assertEquals(AppointmentExportService.fetchSizeFor(new MariaDBDialect()), Integer.MIN_VALUE);
+        Assert.assertEquals(AppointmentExportService.fetchSizeFor(new H2Dialect()), AppointmentExportService.FETCH_SIZE);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWriteNdjson_AppliesFetchSizeToCursor() throws IOException {
+        // Arrange
+        AppointmentExportService export = service(Integer.MIN_VALUE);
+        when(rows.next()).thenReturn(false);
+
+        // Act
+        export.writeNdjson(null, null, null, new ByteArrayOutputStream());
+
+        // Assert
+        verify(query).setFetchSize(Integer.MIN_VALUE);
+    }
+}
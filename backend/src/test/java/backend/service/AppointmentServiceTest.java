@@ -1,13 +1,27 @@
 package backend.service;
 
+import backend.dto.AppointmentPage;
+import backend.dto.AppointmentRow;
+import backend.dto.AppointmentSlotRef;
+import backend.dto.BatchBookingRequest;
+import backend.dto.BatchBookingResult;
+import backend.dto.BulkStatusResult;
+import backend.dto.DoctorAvailability;
+import backend.dto.FreeSlot;
+import backend.dto.SlotHold;
 import backend.model.Appointment;
 import backend.model.Doctor;
+import backend.model.DoctorSchedule;
 import backend.model.Patient;
+import backend.model.ScheduleBreak;
 import backend.repository.AppointmentRepository;
 import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
 import backend.repository.PatientRepository;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -18,6 +32,8 @@ import java.time.LocalTime;
 import java.util.*;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,7 +50,15 @@ public class AppointmentServiceTest {
     @Mock
     private PatientRepository patientRepository;
     
+    @Mock
+    private DoctorScheduleRepository scheduleRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     private AppointmentService appointmentService;
+    private SlotAvailabilityIndex slotIndex;
+    private SlotHoldService slotHoldService;
     private Patient testPatient;
     private Doctor testDoctor;
     private AutoCloseable closeable;
@@ -42,7 +66,9 @@ public class AppointmentServiceTest {
     @BeforeMethod
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        appointmentService = new AppointmentService(appointmentRepository, doctorRepository, patientRepository);
+        slotIndex = new SlotAvailabilityIndex(new SlotTemplates(scheduleRepository));
+        slotHoldService = new SlotHoldService(slotIndex, 3_000, false);
+        appointmentService = new AppointmentService(appointmentRepository, doctorRepository, new PatientResolver(patientRepository, 1000), slotIndex, slotHoldService, eventPublisher);
         
         // Setup test patient
         testPatient = new Patient();
@@ -103,6 +129,241 @@ public class AppointmentServiceTest {
         Assert.assertFalse(slots.contains(LocalTime.of(10, 0))); // 10:00 should not be available
     }
     
+    @Test(groups = {"unit", "service"})
+    public void testAvailableSlots_SecondCallServedFromIndex() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class)))
+            .thenReturn(new ArrayList<>());
+        
+        // Act
+        appointmentService.availableSlots(1L, date);
+        List<LocalTime> slots = appointmentService.availableSlots(1L, date);
+        
+        // Assert
+        Assert.assertEquals(slots.size(), 16);
+        verify(appointmentRepository, times(1)).findByDoctorAndDate(any(Doctor.class), any(LocalDate.class));
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Time is not a bookable slot")
+    public void testAvailableSlots_UsesDoctorSchedule() {
+        // Arrange: 20-minute slots 8:00-12:00 with a break 10:00-10:30, working only on this weekday
+        LocalDate date = LocalDate.now().plusDays(1);
+        DoctorSchedule day = new DoctorSchedule();
+        day.setDayOfWeek(date.getDayOfWeek());
+        day.setStartTime(LocalTime.of(8, 0));
+        day.setEndTime(LocalTime.of(12, 0));
+        day.setSlotMinutes(20);
+        day.getBreaks().add(new ScheduleBreak(LocalTime.of(10, 0), LocalTime.of(10, 30)));
+        when(scheduleRepository.findByDoctorId(1L)).thenReturn(List.of(day));
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class)))
+            .thenReturn(new ArrayList<>());
+
+        // Act
+        List<LocalTime> slots = appointmentService.availableSlots(1L, date);
+        List<LocalTime> closed = appointmentService.availableSlots(1L, date.plusDays(1));
+        appointmentService.availableSlots(1L, date.plusDays(7));
+
+        // Assert
+        Assert.assertEquals(slots.size(), 10);
+        Assert.assertEquals(slots.get(0), LocalTime.of(8, 0));
+        Assert.assertTrue(slots.contains(LocalTime.of(9, 40)));
+        Assert.assertFalse(slots.contains(LocalTime.of(10, 0)));
+        Assert.assertFalse(slots.contains(LocalTime.of(10, 20)));
+        Assert.assertTrue(slots.contains(LocalTime.of(10, 40)));
+        Assert.assertTrue(closed.isEmpty());
+        verify(scheduleRepository, times(1)).findByDoctorId(1L);
+        // 9:30 is on the default grid but not in this schedule
+        appointmentService.book("HEALTH123456", 1L, date, LocalTime.of(9, 30));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testOccupancy_ReloadsDayCachedUnderReplacedTemplate() {
+        // Arrange: the day is cached under the default 9:00-17:00 grid, where 9:00 is the first slot
+        LocalDate date = LocalDate.now().plusDays(1);
+        SlotTemplates templates = new SlotTemplates(scheduleRepository);
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(templates);
+        Appointment nine = new Appointment();
+        nine.setTime(LocalTime.of(9, 0));
+        nine.setStatus(Appointment.Status.PENDING);
+        index.occupancy(1L, date, () -> List.of(nine));
+        DoctorSchedule day = new DoctorSchedule();
+        day.setDayOfWeek(date.getDayOfWeek());
+        day.setStartTime(LocalTime.of(8, 0));
+        day.setEndTime(LocalTime.of(12, 0));
+        day.setSlotMinutes(20);
+        when(scheduleRepository.findByDoctorId(1L)).thenReturn(List.of(day));
+
+        // Act: the template changes without the day being evicted, as when a load races the schedule update
+        templates.invalidate(1L);
+        List<LocalTime> free = index.freeSlots(1L, date, index.occupancy(1L, date, () -> List.of(nine)));
+
+        // Assert: read in the old layout, the cached bit would have marked 8:00 taken instead of 9:00
+        Assert.assertTrue(free.contains(LocalTime.of(8, 0)));
+        Assert.assertFalse(free.contains(LocalTime.of(9, 0)));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testOccupancy_RereadsDayReleasedWhileLoading() {
+        // Arrange: the first read still sees 9:00 booked, but the booking is cancelled before it is cached
+        LocalDate date = LocalDate.now().plusDays(1);
+        Appointment nine = new Appointment();
+        nine.setTime(LocalTime.of(9, 0));
+        nine.setStatus(Appointment.Status.PENDING);
+        int[] reads = new int[1];
+
+        // Act
+        long bits = slotIndex.occupancy(1L, date, () -> {
+            if (reads[0]++ > 0) return List.of();
+            slotIndex.release(1L, date, LocalTime.of(9, 0));
+            return List.of(nine);
+        });
+
+        // Assert
+        Assert.assertEquals(reads[0], 2);
+        Assert.assertEquals(bits, 0L);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testClaim_LoaderMayReadOtherDays() {
+        // Arrange: a loader that consults the index itself must not run under one of its bin locks
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        // Act
+        boolean claimed = slotIndex.claim(1L, date, LocalTime.of(9, 0),
+                () -> {
+                    slotIndex.occupancy(2L, date, List::of);
+                    return List.of();
+                });
+
+        // Assert
+        Assert.assertTrue(claimed);
+        Assert.assertFalse(slotIndex.claim(1L, date, LocalTime.of(9, 0), List::of));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testAvailableSlots_TracksBookAndCancel() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(11, 30);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class)))
+            .thenReturn(new ArrayList<>());
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> i.getArgument(0));
+        appointmentService.availableSlots(1L, date);
+        
+        // Act & Assert
+        Appointment booked = appointmentService.book("HEALTH123456", 1L, date, time);
+        Assert.assertFalse(appointmentService.availableSlots(1L, date).contains(time));
+        
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(booked));
+        appointmentService.cancel(7L);
+        Assert.assertTrue(appointmentService.availableSlots(1L, date).contains(time));
+        verify(appointmentRepository, times(1)).findByDoctorAndDate(any(Doctor.class), any(LocalDate.class));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testAvailableSlotsRange_SingleQueryForWholeWindow() {
+        // Arrange
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(6);
+        Appointment booked = new Appointment();
+        booked.setDoctor(testDoctor);
+        booked.setDate(from.plusDays(2));
+        booked.setTime(LocalTime.of(9, 30));
+        booked.setStatus(Appointment.Status.PENDING);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorAndDateBetween(testDoctor, from, to))
+            .thenReturn(Arrays.asList(booked));
+        
+        // Act
+        Map<LocalDate, List<LocalTime>> range = appointmentService.availableSlotsRange(1L, from, to);
+        List<LocalTime> day = appointmentService.availableSlots(1L, from.plusDays(2));
+        
+        // Assert
+        Assert.assertEquals(range.size(), 7);
+        Assert.assertEquals(range.get(from).size(), 16);
+        Assert.assertEquals(range.get(from.plusDays(2)).size(), 15);
+        Assert.assertFalse(day.contains(LocalTime.of(9, 30)));
+        verify(appointmentRepository, times(1)).findByDoctorAndDateBetween(any(), any(), any());
+        verify(appointmentRepository, never()).findByDoctorAndDate(any(), any());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testAvailableSlotsBySpecialization_SortedByEarliest() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        Doctor busy = new Doctor();
+        busy.setId(2L);
+        busy.setName("Dr. Busy");
+        busy.setSpecialization("Cardiology");
+        testDoctor.setSpecialization("Cardiology");
+        Appointment early = new Appointment();
+        early.setDoctor(busy);
+        early.setDate(date);
+        early.setTime(LocalTime.of(9, 0));
+        early.setStatus(Appointment.Status.CONFIRMED);
+        when(doctorRepository.findBySpecializationContainingIgnoreCase("cardio"))
+            .thenReturn(Arrays.asList(busy, testDoctor));
+        when(appointmentRepository.findByDoctorIdInAndDateBetween(any(), eq(date), eq(date)))
+            .thenReturn(Arrays.asList(early));
+        
+        // Act
+        List<DoctorAvailability> result = appointmentService.availableSlotsBySpecialization("cardio", date, date);
+        
+        // Assert
+        Assert.assertEquals(result.size(), 2);
+        Assert.assertEquals(result.get(0).doctorId, Long.valueOf(1L));
+        Assert.assertEquals(result.get(0).earliest, date.atTime(9, 0));
+        Assert.assertEquals(result.get(1).earliest, date.atTime(9, 30));
+        verify(appointmentRepository, times(1)).findByDoctorIdInAndDateBetween(any(), any(), any());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testNextAvailable_SkipsFullyBookedDays() {
+        // Arrange: the doctor is fully booked for the next 10 days
+        LocalDate start = LocalDate.now().plusDays(1);
+        List<Appointment> booked = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            for (int slot = 0; slot < SlotTemplate.DEFAULT.size(); slot++) {
+                Appointment a = new Appointment();
+                a.setDoctor(testDoctor);
+                a.setDate(start.plusDays(day));
+                a.setTime(SlotTemplate.DEFAULT.timeAt(slot));
+                a.setStatus(Appointment.Status.CONFIRMED);
+                booked.add(a);
+            }
+        }
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorIdInAndDateBetween(any(), any(), any())).thenAnswer(i -> {
+            LocalDate from = i.getArgument(1);
+            LocalDate to = i.getArgument(2);
+            return booked.stream().filter(a -> !a.getDate().isBefore(from) && !a.getDate().isAfter(to)).toList();
+        });
+        
+        // Act
+        List<FreeSlot> next = appointmentService.nextAvailable(1L, null, start.atTime(8, 0), 3, 60);
+        
+        // Assert
+        Assert.assertEquals(next.size(), 3);
+        Assert.assertEquals(next.get(0).date, start.plusDays(10));
+        Assert.assertEquals(next.get(0).time, LocalTime.of(9, 0));
+        Assert.assertEquals(next.get(2).time, LocalTime.of(10, 0));
+        // one query for the first week, one for the following two weeks
+        verify(appointmentRepository, times(2)).findByDoctorIdInAndDateBetween(any(), any(), any());
+    }
+    
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testAvailableSlotsRange_InvertedRange_ThrowsException() {
+        LocalDate from = LocalDate.now().plusDays(3);
+        appointmentService.availableSlotsRange(1L, from, from.minusDays(1));
+    }
+    
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
     public void testAvailableSlots_DoctorNotFound_ThrowsException() {
         // Arrange
@@ -118,9 +379,8 @@ public class AppointmentServiceTest {
         LocalDate appointmentDate = LocalDate.now().plusDays(1);
         LocalTime appointmentTime = LocalTime.of(10, 0);
         
-        when(patientRepository.findAll()).thenReturn(Arrays.asList(testPatient));
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
-        when(appointmentRepository.existsByDoctorAndDateAndTime(any(), any(), any())).thenReturn(false);
         when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
             Appointment a = invocation.getArgument(0);
             a.setId(1L);
@@ -142,14 +402,189 @@ public class AppointmentServiceTest {
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
     public void testBook_SlotAlreadyBooked_ThrowsException() {
         // Arrange
-        when(patientRepository.findAll()).thenReturn(Arrays.asList(testPatient));
+        Appointment existing = new Appointment();
+        existing.setTime(LocalTime.of(10, 0));
+        existing.setStatus(Appointment.Status.PENDING);
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
-        when(appointmentRepository.existsByDoctorAndDateAndTime(any(), any(), any())).thenReturn(true);
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class)))
+            .thenReturn(Arrays.asList(existing));
         
         // Act & Assert (exception expected)
         appointmentService.book("HEALTH123456", 1L, LocalDate.now().plusDays(1), LocalTime.of(10, 0));
     }
     
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testBook_OffGridTime_ThrowsException() {
+        // Arrange
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        
+        // Act & Assert (exception expected)
+        appointmentService.book("HEALTH123456", 1L, LocalDate.now().plusDays(1), LocalTime.of(10, 10));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testBookBatch_ReportsOutcomePerItem() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(2);
+        when(patientRepository.findByHealthIdIn(any())).thenReturn(Arrays.asList(testPatient));
+        when(doctorRepository.findAllById(any())).thenReturn(Arrays.asList(testDoctor));
+        when(appointmentRepository.findByDoctorIdInAndDateIn(any(), any())).thenReturn(new ArrayList<>());
+        when(appointmentRepository.saveAll(any())).thenAnswer(i -> {
+            List<Appointment> list = i.getArgument(0);
+            long id = 100;
+            for (Appointment a : list) a.setId(id++);
+            return list;
+        });
+        List<BatchBookingRequest> items = Arrays.asList(
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(9, 0)),
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(9, 0)),
+            batchItem("UNKNOWN00000", 1L, date, LocalTime.of(9, 30)),
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(10, 0)),
+            batchItem("HEALTH123456", 1L, LocalDate.now().plusYears(3), LocalTime.of(10, 0)));
+        
+        // Act
+        List<BatchBookingResult> results = appointmentService.bookBatch(items);
+        
+        // Assert
+        Assert.assertEquals(results.get(0).outcome, BatchBookingResult.Outcome.BOOKED);
+        Assert.assertEquals(results.get(0).appointmentId, Long.valueOf(100L));
+        Assert.assertEquals(results.get(1).outcome, BatchBookingResult.Outcome.CONFLICT);
+        Assert.assertEquals(results.get(2).outcome, BatchBookingResult.Outcome.INVALID);
+        Assert.assertEquals(results.get(3).outcome, BatchBookingResult.Outcome.BOOKED);
+        Assert.assertEquals(results.get(4).outcome, BatchBookingResult.Outcome.INVALID);
+        verify(appointmentRepository, times(1)).findByDoctorIdInAndDateIn(eq(Set.of(1L)), eq(Set.of(date)));
+        verify(appointmentRepository, times(1)).saveAll(any());
+        verify(appointmentRepository, never()).findByDoctorAndDate(any(), any());
+        verify(patientRepository, never()).findAll();
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testBookBatch_FailedFallbackFreesUnsavedClaims() {
+        // Arrange: the batch insert hits a unique key, then the item-by-item retry loses the connection on item 2
+        LocalDate date = LocalDate.now().plusDays(2);
+        when(patientRepository.findByHealthIdIn(any())).thenReturn(Arrays.asList(testPatient));
+        when(doctorRepository.findAllById(any())).thenReturn(Arrays.asList(testDoctor));
+        when(appointmentRepository.findByDoctorIdInAndDateIn(any(), any())).thenReturn(new ArrayList<>());
+        when(appointmentRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("uk_appointments_slot"));
+        when(appointmentRepository.save(any(Appointment.class)))
+            .thenAnswer(i -> i.getArgument(0))
+            .thenThrow(new IllegalStateException("connection lost"));
+        List<BatchBookingRequest> items = Arrays.asList(
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(9, 0)),
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(9, 30)),
+            batchItem("HEALTH123456", 1L, date, LocalTime.of(10, 0)));
+
+        // Act
+        Assert.expectThrows(IllegalStateException.class, () -> appointmentService.bookBatch(items));
+
+        // Assert: only the saved 9:00 booking keeps its slot
+        List<LocalTime> free = slotIndex.freeSlots(1L, date, slotIndex.occupancy(1L, date, List::of));
+        Assert.assertFalse(free.contains(LocalTime.of(9, 0)));
+        Assert.assertTrue(free.contains(LocalTime.of(9, 30)));
+        Assert.assertTrue(free.contains(LocalTime.of(10, 0)));
+        verify(appointmentRepository, times(2)).save(any(Appointment.class));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testHold_BlocksOthersUntilBookedWithToken() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(14, 0);
+        Patient other = new Patient();
+        other.setId(2L);
+        other.setHealthId("OTHER0000000");
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
+        when(patientRepository.findByHealthId("OTHER0000000")).thenReturn(Optional.of(other));
+        when(patientRepository.findIdByHealthId("HEALTH123456")).thenReturn(Optional.of(1L));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(testPatient));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> i.getArgument(0));
+        
+        // Act
+        SlotHold hold = appointmentService.hold("HEALTH123456", 1L, date, time);
+        
+        // Assert
+        Assert.assertFalse(appointmentService.availableSlots(1L, date).contains(time));
+        Assert.assertThrows(IllegalArgumentException.class, () -> appointmentService.book("OTHER0000000", 1L, date, time));
+        Assert.assertThrows(IllegalArgumentException.class, () -> appointmentService.book("OTHER0000000", 1L, date, time, hold.token));
+        Appointment booked = appointmentService.book("HEALTH123456", 1L, date, time, hold.token);
+        Assert.assertEquals(booked.getTime(), time);
+        Assert.assertSame(booked.getPatient(), testPatient);
+        Assert.assertEquals(slotHoldService.activeHolds(), 0);
+        Assert.assertFalse(appointmentService.availableSlots(1L, date).contains(time));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testHold_ExpiresWithoutDatabaseWrites() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(15, 30);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(patientRepository.findIdByHealthId("HEALTH123456")).thenReturn(Optional.of(1L));
+        appointmentService.hold("HEALTH123456", 1L, date, time);
+        
+        // Act: 3 s TTL on a 1 s wheel
+        for (int i = 0; i < 5; i++) slotHoldService.wheel().advance();
+        
+        // Assert
+        Assert.assertEquals(slotHoldService.activeHolds(), 0);
+        Assert.assertTrue(appointmentService.availableSlots(1L, date).contains(time));
+        verify(appointmentRepository, never()).save(any());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testHold_UnknownPatient_ThrowsWithoutHolding() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(patientRepository.findIdByHealthId("UNKNOWN00000")).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        Assert.assertThrows(IllegalArgumentException.class,
+            () -> appointmentService.hold("UNKNOWN00000", 1L, date, LocalTime.of(9, 0)));
+        Assert.assertEquals(slotHoldService.activeHolds(), 0);
+        Assert.assertTrue(appointmentService.availableSlots(1L, date).contains(LocalTime.of(9, 0)));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testHold_CapsActiveHoldsPerPatient() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(patientRepository.findIdByHealthId("HEALTH123456")).thenReturn(Optional.of(1L));
+        List<SlotHold> holds = new ArrayList<>();
+        for (int i = 0; i < SlotHoldService.MAX_HOLDS_PER_PATIENT; i++) {
+            holds.add(appointmentService.hold("HEALTH123456", 1L, date, LocalTime.of(9, 0).plusMinutes(30L * i)));
+        }
+        
+        // Act & Assert
+        Assert.assertThrows(IllegalArgumentException.class,
+            () -> appointmentService.hold("HEALTH123456", 1L, date, LocalTime.of(13, 0)));
+        appointmentService.releaseHold(holds.get(0).token);
+        SlotHold again = appointmentService.hold("HEALTH123456", 1L, date, LocalTime.of(13, 0));
+        Assert.assertNotNull(again.token);
+        Assert.assertEquals(slotHoldService.activeHolds(), SlotHoldService.MAX_HOLDS_PER_PATIENT);
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testConsume_ExpiredHold_ReturnsFalseAndFreesSlot() {
+        // Arrange: holds that are already past their expiry when placed
+        SlotHoldService expiring = new SlotHoldService(slotIndex, -1_000, false);
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(11, 0);
+        SlotHold hold = expiring.place("HEALTH123456", 1L, date, time, ArrayList::new);
+        
+        // Act
+        boolean consumed = expiring.consume(hold.token, "HEALTH123456", 1L, date, time);
+        
+        // Assert
+        Assert.assertFalse(consumed);
+        Assert.assertEquals(expiring.activeHolds(), 0);
+        Assert.assertTrue(slotIndex.claim(1L, date, time, ArrayList::new));
+    }
+    
     @Test(groups = {"unit", "service"})
     public void testCancel_Success() {
         // Arrange
@@ -166,7 +601,29 @@ public class AppointmentServiceTest {
         // Assert
         Assert.assertEquals(result.getStatus(), Appointment.Status.CANCELLED);
     }
-    
+
+    @Test(groups = {"unit", "service"})
+    public void testSetStatus_RejectedPublishesSlotFreed() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(1);
+        Appointment appointment = new Appointment();
+        appointment.setId(1L);
+        appointment.setDoctor(testDoctor);
+        appointment.setDate(date);
+        appointment.setTime(LocalTime.of(10, 0));
+        appointment.setStatus(Appointment.Status.PENDING);
+
+        when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        appointmentService.setStatus(1L, Appointment.Status.REJECTED);
+        appointmentService.setStatus(1L, Appointment.Status.CANCELLED);
+
+        // Assert: only the transition that freed the slot is published
+        verify(eventPublisher, times(1)).publishEvent(new SlotFreedEvent(1L, date, LocalTime.of(10, 0)));
+    }
+
     @Test(groups = {"unit", "service"})
     public void testSetStatus_Confirmed() {
         // Arrange
@@ -185,28 +642,87 @@ public class AppointmentServiceTest {
     }
     
     @Test(groups = {"unit", "service"})
-    public void testListAll_ReturnsAllAppointments() {
-        // Arrange
-        List<Appointment> appointments = Arrays.asList(new Appointment(), new Appointment(), new Appointment());
-        when(appointmentRepository.findAll()).thenReturn(appointments);
-        
+    public void testListPage_CursorSeeksPastLastRow() {
+        // Arrange: three rows on the first call, limit 2
+        LocalDate date = LocalDate.now().plusDays(1);
+        List<AppointmentRow> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            rows.add(new AppointmentRow(id, date, LocalTime.of(9, 0).plusMinutes(30 * id), Appointment.Status.PENDING,
+                "HEALTH123456", "Test Patient", 1L, "Dr. Test", "General"));
+        }
+        when(appointmentRepository.findPage(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(rows);
+
         // Act
-        List<Appointment> result = appointmentService.listAll();
-        
+        AppointmentPage first = appointmentService.listPage(Appointment.Status.PENDING, null, null, null, null, 2);
+        appointmentService.listPage(Appointment.Status.PENDING, null, null, null, first.nextCursor, 2);
+
         // Assert
-        Assert.assertEquals(result.size(), 3);
+        Assert.assertEquals(first.items.size(), 2);
+        Assert.assertNotNull(first.nextCursor);
+        verify(appointmentRepository).findPage(eq(Appointment.Status.PENDING), isNull(), isNull(), isNull(),
+            eq(date), eq(LocalTime.of(10, 0)), eq(2L), any());
     }
-    
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testListPage_InvalidCursor_ThrowsException() {
+        appointmentService.listPage(null, null, null, null, "not-a-cursor", 50);
+    }
+
     @Test(groups = {"unit", "service"})
-    public void testListByStatus_FiltersByStatus() {
+    public void testBulkSetStatus_RejectsWithOneUpdate() {
         // Arrange
-        List<Appointment> pendingAppointments = Arrays.asList(new Appointment(), new Appointment());
-        when(appointmentRepository.findByStatus(Appointment.Status.PENDING)).thenReturn(pendingAppointments);
-        
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime time = LocalTime.of(10, 0);
+        when(appointmentRepository.findSlotRefs(any())).thenReturn(List.of(
+            new AppointmentSlotRef(1L, Appointment.Status.PENDING, 1L, date, time),
+            new AppointmentSlotRef(2L, Appointment.Status.PENDING, 1L, date, LocalTime.of(10, 30)),
+            new AppointmentSlotRef(3L, Appointment.Status.CANCELLED, 1L, date, LocalTime.of(11, 0)),
+            new AppointmentSlotRef(4L, Appointment.Status.REJECTED, 1L, date, LocalTime.of(11, 30))));
+        when(appointmentRepository.lockIdsInStatus(any(), any())).thenReturn(List.of(1L, 2L));
+        when(appointmentRepository.bulkSetInactiveStatus(any(), eq(Appointment.Status.REJECTED), any())).thenReturn(2);
+
         // Act
-        List<Appointment> result = appointmentService.listByStatus(Appointment.Status.PENDING);
-        
+        List<BulkStatusResult> results = appointmentService.bulkSetStatus(List.of(1L, 2L, 3L, 4L, 5L), Appointment.Status.REJECTED);
+
         // Assert
-        Assert.assertEquals(result.size(), 2);
+        Assert.assertEquals(results.stream().map(r -> r.outcome).toList(), List.of(
+            BulkStatusResult.Outcome.UPDATED, BulkStatusResult.Outcome.UPDATED, BulkStatusResult.Outcome.INVALID,
+            BulkStatusResult.Outcome.UNCHANGED, BulkStatusResult.Outcome.NOT_FOUND));
+        verify(appointmentRepository, times(1)).bulkSetInactiveStatus(eq(Set.of(1L, 2L)), eq(Appointment.Status.REJECTED),
+            eq(List.of(Appointment.Status.PENDING, Appointment.Status.CONFIRMED)));
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(eventPublisher).publishEvent(new SlotFreedEvent(1L, date, time));
+        verify(eventPublisher).publishEvent(new SlotFreedEvent(1L, date, LocalTime.of(10, 30)));
+        verify(appointmentRepository).lockIdsInStatus(eq(Set.of(1L, 2L)), eq(List.of("PENDING", "CONFIRMED")));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testBulkSetStatus_SkipsRowsAnotherRequestMoved() {
+        // Arrange: appointment 2 was cancelled by another request after it was read, which already freed its slot
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(appointmentRepository.findSlotRefs(any())).thenReturn(List.of(
+            new AppointmentSlotRef(1L, Appointment.Status.PENDING, 1L, date, LocalTime.of(10, 0)),
+            new AppointmentSlotRef(2L, Appointment.Status.PENDING, 1L, date, LocalTime.of(10, 30))));
+        when(appointmentRepository.lockIdsInStatus(any(), any())).thenReturn(List.of(1L));
+        when(appointmentRepository.bulkSetInactiveStatus(any(), eq(Appointment.Status.CANCELLED), any())).thenReturn(1);
+
+        // Act
+        List<BulkStatusResult> results = appointmentService.bulkSetStatus(List.of(1L, 2L), Appointment.Status.CANCELLED);
+
+        // Assert: the slot is offered to the waitlist once, by the request that freed it
+        Assert.assertEquals(results.get(0).outcome, BulkStatusResult.Outcome.UPDATED);
+        Assert.assertEquals(results.get(1).outcome, BulkStatusResult.Outcome.INVALID);
+        verify(appointmentRepository).bulkSetInactiveStatus(eq(Set.of(1L)), eq(Appointment.Status.CANCELLED), any());
+        verify(eventPublisher, times(1)).publishEvent(any(SlotFreedEvent.class));
+        verify(eventPublisher).publishEvent(new SlotFreedEvent(1L, date, LocalTime.of(10, 0)));
+    }
+
+    private BatchBookingRequest batchItem(String healthId, Long doctorId, LocalDate date, LocalTime time) {
+        BatchBookingRequest item = new BatchBookingRequest();
+        item.healthId = healthId;
+        item.doctorId = doctorId;
+        item.date = date;
+        item.time = time;
+        return item;
     }
 }
@@ -0,0 +1,117 @@
+package backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.Query;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DoctorPhotoMigration
+ */
+public class DoctorPhotoMigrationTest {
+
+    @Mock
+    private EntityManagerFactory emf;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private StatelessSession session;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Query<Long> idQuery;
+
+    @Mock
+    private Query<Long> countQuery;
+
+    @Mock
+    private Query<byte[]> photoQuery;
+
+    @Mock
+    private MutationQuery update;
+
+    @Mock
+    private PhotoStore store;
+
+    private DoctorPhotoMigration migration;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        when(emf.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createQuery(startsWith("select d.id"), eq(Long.class))).thenReturn(idQuery);
+        when(session.createQuery(startsWith("select count"), eq(Long.class))).thenReturn(countQuery);
+        when(session.createQuery(startsWith("select d.photo"), eq(byte[].class))).thenReturn(photoQuery);
+        when(session.createMutationQuery(anyString())).thenReturn(update);
+        when(idQuery.setParameter(anyString(), any())).thenReturn(idQuery);
+        when(idQuery.setMaxResults(anyInt())).thenReturn(idQuery);
+        when(photoQuery.setParameter(anyString(), any())).thenReturn(photoQuery);
+        when(update.setParameter(anyString(), any())).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(1);
+        migration = new DoctorPhotoMigration(emf, store, 50, true);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testMigrate_SkipsPhotoTheStoreCannotWrite() throws IOException {
+        // Arrange: doctor 1's photo fails to store, doctor 2's goes through
+        byte[] broken = {1};
+        byte[] fine = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D};
+        when(idQuery.getResultList()).thenReturn(List.of(1L, 2L)).thenReturn(List.of());
+        when(photoQuery.getSingleResult()).thenReturn(broken, fine);
+        when(store.put(broken)).thenThrow(new IOException("disk full"));
+        when(store.put(fine)).thenReturn("a".repeat(64));
+        when(countQuery.getSingleResult()).thenReturn(1L);
+
+        // Act
+        int moved = migration.migrate();
+
+        // Assert
+        Assert.assertEquals(moved, 1);
+        verify(update, times(1)).executeUpdate();
+        verify(update).setParameter("contentType", "image/png");
+        verify(session).createMutationQuery(contains("d.photoContentType = coalesce(:contentType, d.photoContentType)"));
+        verify(transaction).commit();
+        Assert.assertEquals(migration.stats(), new DoctorPhotoMigration.Stats(1, 1, 1));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testOnReady_DatabaseFailureIsNotPropagated() {
+        // Arrange
+        when(idQuery.getResultList()).thenReturn(List.of(1L));
+        when(photoQuery.getSingleResult()).thenReturn(new byte[]{1});
+        when(update.executeUpdate()).thenThrow(new IllegalStateException("connection lost"));
+
+        // Act
+        migration.onReady();
+
+        // Assert: the batch was rolled back and the listener returned normally
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+    }
+}
@@ -0,0 +1,153 @@
+package backend.service;
+
+import backend.model.Doctor;
+import backend.model.DoctorSchedule;
+import backend.model.ScheduleBreak;
+import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DoctorScheduleService
+ */
+public class DoctorScheduleServiceTest {
+
+    @Mock
+    private DoctorScheduleRepository scheduleRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private SlotTemplates templates;
+
+    @Mock
+    private SlotAvailabilityIndex slotIndex;
+
+    private DoctorScheduleService scheduleService;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        scheduleService = new DoctorScheduleService(scheduleRepository, doctorRepository, templates, slotIndex);
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(scheduleRepository.saveAll(any())).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        closeable.close();
+    }
+
+    private static DoctorSchedule day(DayOfWeek dayOfWeek, ScheduleBreak... breaks) {
+        DoctorSchedule day = new DoctorSchedule();
+        day.setDayOfWeek(dayOfWeek);
+        day.setStartTime(LocalTime.of(9, 0));
+        day.setEndTime(LocalTime.of(13, 0));
+        day.setSlotMinutes(30);
+        day.getBreaks().addAll(List.of(breaks));
+        return day;
+    }
+
+    private static ScheduleBreak pause(int fromHour, int fromMinute, int toHour, int toMinute) {
+        return new ScheduleBreak(LocalTime.of(fromHour, fromMinute), LocalTime.of(toHour, toMinute));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testReplace_SavesDaysInWeekdayOrder() {
+        // Arrange
+        List<DoctorSchedule> days = List.of(day(DayOfWeek.FRIDAY), day(DayOfWeek.MONDAY, pause(10, 0, 10, 30), pause(11, 0, 11, 30)));
+
+        // Act
+        List<DoctorSchedule> saved = scheduleService.replace(1L, days);
+
+        // Assert
+        Assert.assertEquals(saved.get(0).getDayOfWeek(), DayOfWeek.MONDAY);
+        Assert.assertEquals(saved.get(1).getDayOfWeek(), DayOfWeek.FRIDAY);
+        verify(scheduleRepository).deleteByDoctorId(1L);
+        verify(templates).invalidate(1L);
+        verify(slotIndex).evictDoctor(1L);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Breaks overlap on MONDAY")
+    public void testReplace_RejectsOverlappingBreaks() {
+        try {
+            scheduleService.replace(1L, List.of(day(DayOfWeek.MONDAY, pause(11, 0, 11, 30), pause(10, 0, 11, 15))));
+        } finally {
+            verify(scheduleRepository, never()).deleteByDoctorId(anyLong());
+        }
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Breaks must fall within working hours on TUESDAY")
+    public void testReplace_RejectsBreakOutsideHours() {
+        scheduleService.replace(1L, List.of(day(DayOfWeek.TUESDAY, pause(12, 30, 13, 30))));
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Break start must be before break end")
+    public void testReplace_RejectsInvertedBreak() {
+        scheduleService.replace(1L, List.of(day(DayOfWeek.TUESDAY, pause(11, 0, 10, 0))));
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Duplicate schedule for WEDNESDAY")
+    public void testReplace_RejectsDuplicateWeekday() {
+        scheduleService.replace(1L, List.of(day(DayOfWeek.WEDNESDAY), day(DayOfWeek.WEDNESDAY)));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testReplace_InvalidatesTemplatesOnlyAfterCommit() {
+        // Arrange: an open transaction
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        scheduleService.replace(1L, List.of(day(DayOfWeek.MONDAY)));
+
+        // Assert: nothing is dropped while the old rows are still the committed ones
+        verify(templates, never()).invalidate(anyLong());
+        verify(slotIndex, never()).evictDoctor(anyLong());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(templates).invalidate(1L);
+        verify(slotIndex).evictDoctor(1L);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testReplace_RollbackKeepsTemplates() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        scheduleService.replace(1L, List.of(day(DayOfWeek.MONDAY)));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        verify(templates, never()).invalidate(anyLong());
+        verify(slotIndex, never()).evictDoctor(anyLong());
+    }
+}
@@ -1,21 +1,37 @@
 package backend.service;
 
+import backend.config.AsyncConfig;
+import backend.dto.DoctorAppointmentRow;
+import backend.dto.PhotoRef;
 import backend.model.Doctor;
 import backend.model.Appointment;
 import backend.repository.DoctorRepository;
 import backend.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -31,16 +47,27 @@ public class DoctorServiceTest {
     private AppointmentRepository appointmentRepository;
     
     private DoctorService doctorService;
+    private ThreadPoolTaskExecutor hashExecutor;
+    private PhotoStore photoStore;
+    private Path photoDir;
     private AutoCloseable closeable;
     
     @BeforeMethod
-    public void setUp() {
+    public void setUp() throws Exception {
         closeable = MockitoAnnotations.openMocks(this);
-        doctorService = new DoctorService(doctorRepository, appointmentRepository);
+        hashExecutor = new AsyncConfig().passwordHashExecutor(2, 16);
+        photoDir = Files.createTempDirectory("doctor-photos");
+        photoStore = new PhotoStore(photoDir);
+        doctorService = new DoctorService(doctorRepository, appointmentRepository,
+            new PasswordHasher(hashExecutor, new SimpleMeterRegistry(), 4, 0), photoStore);
     }
     
     @AfterMethod
     public void tearDown() throws Exception {
+        hashExecutor.shutdown();
+        try (Stream<Path> files = Files.walk(photoDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
         closeable.close();
     }
     
@@ -64,6 +91,110 @@ public class DoctorServiceTest {
         Assert.assertEquals(doctor.getSpecialization(), "Cardiology");
     }
     
+    @Test(groups = {"unit", "service"})
+    public void testCreate_WithPhoto_StoresFileNotLob() throws Exception {
+        // Arrange
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0x01, 0x02};
+        MultipartFile photo = mock(MultipartFile.class);
+        when(photo.isEmpty()).thenReturn(false);
+        when(photo.getInputStream()).thenReturn(new ByteArrayInputStream(jpeg));
+        when(photo.getContentType()).thenReturn("image/jpeg");
+        when(doctorRepository.existsByEmail(anyString())).thenReturn(false);
+        when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        Doctor doctor = doctorService.create("Dr. Smith", "smith@hospital.com", "Cardiology", photo);
+        
+        // Assert
+        Assert.assertEquals(doctor.getPhotoContentType(), "image/jpeg");
+        Assert.assertEquals(Files.readAllBytes(photoStore.path(doctor.getPhotoHash())), jpeg);
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testPhoto_FromStore_UsesHashAsEtag() throws Exception {
+        // Arrange
+        String hash = photoStore.put(new byte[]{1, 2, 3});
+        when(doctorRepository.findPhotoRef(1L)).thenReturn(Optional.of(new PhotoRef(hash, "image/png")));
+        
+        // Act
+        Optional<DoctorService.Photo> photo = doctorService.photo(1L);
+        
+        // Assert
+        Assert.assertTrue(photo.isPresent());
+        Assert.assertEquals(photo.get().etag(), "\"" + hash + "\"");
+        Assert.assertEquals(photo.get().contentType(), "image/png");
+        verify(doctorRepository, never()).findById(anyLong());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testPhoto_NotMigratedYet_ServedFromRow() {
+        // Arrange
+        when(doctorRepository.findPhotoRef(1L)).thenReturn(Optional.of(new PhotoRef(null, "image/jpeg")));
+        when(doctorRepository.findLegacyPhoto(1L)).thenReturn(Optional.of(new byte[]{4, 5, 6}));
+        
+        // Act
+        Optional<DoctorService.Photo> photo = doctorService.photo(1L);
+        
+        // Assert: read as a scalar, never through the doctor entity
+        Assert.assertTrue(photo.isPresent());
+        Assert.assertNull(photo.get().etag());
+        Assert.assertEquals(photo.get().contentType(), "image/jpeg");
+        verify(doctorRepository, never()).findById(anyLong());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testPhoto_NoPhoto_Empty() {
+        // Arrange
+        when(doctorRepository.findPhotoRef(1L)).thenReturn(Optional.of(new PhotoRef(null, null)));
+        when(doctorRepository.findLegacyPhoto(1L)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        Assert.assertFalse(doctorService.photo(1L).isPresent());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testUpdate_NewPhotoClearsLegacyLobAfterSave() throws Exception {
+        // Arrange
+        Doctor doctor = createDoctor(1L, "Dr. Smith", "Cardiology");
+        MultipartFile photo = mock(MultipartFile.class);
+        when(photo.isEmpty()).thenReturn(false);
+        when(photo.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{7, 8, 9}));
+        when(photo.getContentType()).thenReturn("image/png");
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
+        when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        doctorService.update(1L, null, null, null, photo);
+        doctorService.update(1L, "Dr. Smith Jr.", null, null, null);
+        
+        // Assert: only the photo upload touches the LOB, and only once the new hash is saved
+        var order = inOrder(doctorRepository);
+        order.verify(doctorRepository).save(doctor);
+        order.verify(doctorRepository).clearLegacyPhoto(1L);
+        verify(doctorRepository, times(1)).clearLegacyPhoto(anyLong());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testSweepPhotos_DeletesOnlyOldUnreferencedFiles() throws Exception {
+        // Arrange: one referenced file, one replaced long ago, one uploaded just now and not saved yet
+        String kept = photoStore.put(new byte[]{1});
+        String replaced = photoStore.put(new byte[]{2});
+        String uploading = photoStore.put(new byte[]{3});
+        FileTime old = FileTime.from(Instant.now().minus(DoctorService.SWEEP_GRACE).minusSeconds(60));
+        Files.setLastModifiedTime(photoStore.path(kept), old);
+        Files.setLastModifiedTime(photoStore.path(replaced), old);
+        when(doctorRepository.findPhotoHashes()).thenReturn(List.of(kept));
+        
+        // Act
+        int deleted = doctorService.sweepPhotos();
+        
+        // Assert
+        Assert.assertEquals(deleted, 1);
+        Assert.assertTrue(photoStore.exists(kept));
+        Assert.assertFalse(photoStore.exists(replaced));
+        Assert.assertTrue(photoStore.exists(uploading));
+    }
+    
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
     public void testCreate_DuplicateEmail_ThrowsException() throws Exception {
         // Arrange
@@ -140,22 +271,44 @@ public class DoctorServiceTest {
     }
     
     @Test(groups = {"unit", "service"})
-    public void testAppointmentsByDoctor_ReturnsAppointments() {
+    public void testAppointmentRowsByDoctor_UsesProjection() {
         // Arrange
-        Doctor doctor = createDoctor(1L, "Dr. Smith", "Cardiology");
-        List<Appointment> appointments = new ArrayList<>();
-        appointments.add(new Appointment());
-        appointments.add(new Appointment());
+        List<DoctorAppointmentRow> rows = List.of(
+            new DoctorAppointmentRow(1L, LocalDate.now(), LocalTime.of(9, 0), Appointment.Status.PENDING, "HEALTH123456", "Test Patient"));
+        when(doctorRepository.existsById(1L)).thenReturn(true);
+        when(appointmentRepository.findRowsByDoctorId(1L)).thenReturn(rows);
         
-        when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
-        when(appointmentRepository.findByDoctor(doctor)).thenReturn(appointments);
+        // Act
+        List<DoctorAppointmentRow> result = doctorService.appointmentRowsByDoctor(1L);
+        
+        // Assert
+        Assert.assertEquals(result.size(), 1);
+        Assert.assertEquals(result.get(0).patient.healthId, "HEALTH123456");
+        verify(doctorRepository, never()).findById(any());
+        verify(appointmentRepository, never()).findByDoctor(any());
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testAgenda_SingleQueryForRange() {
+        // Arrange
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(6);
+        when(doctorRepository.existsById(1L)).thenReturn(true);
+        when(appointmentRepository.findAgenda(1L, from, to, List.of(Appointment.Status.CANCELLED, Appointment.Status.REJECTED))).thenReturn(List.of(
+            new DoctorAppointmentRow(1L, from, LocalTime.of(9, 0), Appointment.Status.CONFIRMED, "HEALTH123456", "Test Patient")));
         
         // Act
-        List<Appointment> result = doctorService.appointmentsByDoctor(1L);
+        List<DoctorAppointmentRow> result = doctorService.agenda(1L, from, to);
         
         // Assert
-        Assert.assertNotNull(result);
-        Assert.assertEquals(result.size(), 2);
+        Assert.assertEquals(result.size(), 1);
+        verify(appointmentRepository, times(1)).findAgenda(1L, from, to, List.of(Appointment.Status.CANCELLED, Appointment.Status.REJECTED));
+        verify(appointmentRepository, never()).findByDoctor(any());
+    }
+    
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testAgenda_RangeTooLong_ThrowsException() {
+        doctorService.agenda(1L, LocalDate.now(), LocalDate.now().plusDays(DoctorService.MAX_AGENDA_DAYS));
     }
     
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
@@ -0,0 +1,77 @@
+package backend.service;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit tests for HealthIdGenerator
+ */
+public class HealthIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T10:00:00Z").toEpochMilli();
+
+    @Test(groups = {"unit", "service"})
+    public void testNext_UniqueWithinOneSecondAcrossNodes() {
+        // Arrange: a frozen clock forces every ID through the sequence, and past its end
+        HealthIdGenerator a = new HealthIdGenerator(1, () -> NOW);
+        HealthIdGenerator b = new HealthIdGenerator(2, () -> NOW);
+        Set<String> ids = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(a.next());
+            ids.add(b.next());
+        }
+
+        // Assert
+        Assert.assertEquals(ids.size(), 40_000);
+        for (String id : ids) {
+            Assert.assertTrue(id.matches("[G-Z][0-9A-Z]{11}"), id);
+            Assert.assertTrue(HealthIdGenerator.isValid(id), id);
+        }
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testNext_TimeOrderedWhenClockStepsBack() {
+        // Arrange
+        long[] clock = {NOW};
+        HealthIdGenerator generator = new HealthIdGenerator(3, () -> clock[0]);
+
+        // Act
+        String first = generator.next();
+        clock[0] = NOW + 5_000;
+        String second = generator.next();
+        clock[0] = NOW;
+        String third = generator.next();
+
+        // Assert
+        Assert.assertTrue(first.substring(0, 11).compareTo(second.substring(0, 11)) < 0);
+        Assert.assertTrue(second.substring(0, 11).compareTo(third.substring(0, 11)) < 0);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testIsValid_DetectsTyposAndLegacyIds() {
+        // Arrange
+        String id = new HealthIdGenerator(4, () -> NOW).next();
+        char wrong = id.charAt(5) == 'X' ? 'Y' : 'X';
+        String typo = id.substring(0, 5) + wrong + id.substring(6);
+        String swapped = id.substring(0, 5) + id.charAt(6) + id.charAt(5) + id.substring(7);
+
+        // Act & Assert
+        Assert.assertTrue(HealthIdGenerator.isValid(id));
+        Assert.assertFalse(HealthIdGenerator.isValid(typo));
+        Assert.assertFalse(HealthIdGenerator.isValid(swapped));
+        Assert.assertFalse(HealthIdGenerator.isValid("A1B2C3D4E5F6"));
+        Assert.assertFalse(HealthIdGenerator.isValid(id.toLowerCase()));
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_NodeOutOfRange_ThrowsException() {
+        // Act & Assert (exception expected)
+        new HealthIdGenerator(HealthIdGenerator.MAX_NODE + 1, () -> NOW);
+    }
+}
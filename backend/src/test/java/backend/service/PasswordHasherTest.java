@@ -0,0 +1,97 @@
+package backend.service;
+
+import backend.config.AsyncConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for PasswordHasher
+ */
+public class PasswordHasherTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry registry;
+    private PasswordHasher hasher;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = new AsyncConfig().passwordHashExecutor(1, 1);
+        registry = new SimpleMeterRegistry();
+        hasher = new PasswordHasher(executor, registry, 4, 0);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testEncodeAndMatches_RecordMetrics() {
+        // Act
+        String hash = hasher.encode("password123");
+
+        // Assert
+        Assert.assertTrue(hasher.matches("password123", hash));
+        Assert.assertFalse(hasher.matches("wrong", hash));
+        Assert.assertEquals(registry.get("password.hash.duration").tag("operation", "encode").timer().count(), 1);
+        Assert.assertEquals(registry.get("password.hash.duration").tag("operation", "matches").timer().count(), 2);
+        Assert.assertEquals(registry.get("password.hash.wait").timer().count(), 3);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testNeedsRehash_OnlyUpgrades() {
+        // Arrange
+        PasswordHasher cost5 = new PasswordHasher(executor, registry, 5, 0);
+        String weaker = new BCryptPasswordEncoder(4).encode("password123");
+        String current = cost5.encode("password123");
+        String stronger = new BCryptPasswordEncoder(6).encode("password123");
+
+        // Act & Assert
+        Assert.assertEquals(PasswordHasher.costOf(current), 5);
+        Assert.assertTrue(cost5.needsRehash(weaker));
+        Assert.assertFalse(cost5.needsRehash(current));
+        Assert.assertFalse(cost5.needsRehash(stronger));
+        Assert.assertTrue(cost5.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testCalibrate_ClampsToBounds() {
+        // Act & Assert
+        Assert.assertEquals(PasswordHasher.calibrate(1), PasswordHasher.MIN_COST);
+        Assert.assertEquals(PasswordHasher.calibrate(100_000_000), PasswordHasher.MAX_COST);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testEncode_SaturatedPool_FailsFast() throws Exception {
+        // Arrange: occupy the only worker and the only queue slot
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CountDownLatch drained = new CountDownLatch(1);
+        executor.execute(drained::countDown);
+
+        // Act & Assert
+        try {
+            Assert.assertThrows(ServiceBusyException.class, () -> hasher.encode("password123"));
+            Assert.assertEquals(registry.get("password.hash.rejected").counter().count(), 1.0);
+        } finally {
+            release.countDown();
+        }
+        // Once the queued task has run the queue has room again
+        Assert.assertTrue(drained.await(5, TimeUnit.SECONDS));
+        Assert.assertNotNull(hasher.encode("password123"));
+    }
+}
@@ -0,0 +1,99 @@
+package backend.service;
+
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import backend.util.LruCache;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientResolver
+ */
+public class PatientResolverTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private PatientResolver resolver;
+    private Patient testPatient;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        resolver = new PatientResolver(patientRepository, 2);
+
+        testPatient = new Patient();
+        testPatient.setId(1L);
+        testPatient.setHealthId("HEALTH123456");
+        when(patientRepository.findByHealthId("HEALTH123456")).thenReturn(Optional.of(testPatient));
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(testPatient));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testResolve_CachesIdAfterFirstLookup() {
+        // Act
+        Patient first = resolver.resolve("HEALTH123456");
+        Patient second = resolver.resolve("HEALTH123456");
+        Long id = resolver.resolveId("HEALTH123456");
+
+        // Assert
+        Assert.assertSame(first, testPatient);
+        Assert.assertSame(second, testPatient);
+        Assert.assertEquals(id, Long.valueOf(1L));
+        verify(patientRepository, times(1)).findByHealthId("HEALTH123456");
+        verify(patientRepository, times(1)).findById(1L);
+        verify(patientRepository, never()).findIdByHealthId(anyString());
+        verify(patientRepository, never()).getReferenceById(anyLong());
+        verify(patientRepository, never()).findAll();
+        LruCache.Stats stats = resolver.stats();
+        Assert.assertEquals(stats.hits(), 2);
+        Assert.assertEquals(stats.misses(), 1);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testResolveId_EvictsLeastRecentlyUsed() {
+        // Arrange
+        when(patientRepository.findIdByHealthId("A")).thenReturn(Optional.of(10L));
+        when(patientRepository.findIdByHealthId("B")).thenReturn(Optional.of(11L));
+        when(patientRepository.findIdByHealthId("C")).thenReturn(Optional.of(12L));
+
+        // Act: A is touched again before C arrives, so B is the one evicted
+        resolver.resolveId("A");
+        resolver.resolveId("B");
+        resolver.resolveId("A");
+        resolver.resolveId("C");
+        resolver.resolveId("B");
+
+        // Assert
+        verify(patientRepository, times(1)).findIdByHealthId("A");
+        verify(patientRepository, times(2)).findIdByHealthId("B");
+        Assert.assertEquals(resolver.stats().size(), 2);
+        Assert.assertEquals(resolver.stats().evictions(), 2);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Patient not found")
+    public void testResolve_UnknownHealthId_ThrowsException() {
+        // Arrange
+        when(patientRepository.findByHealthId("UNKNOWN00000")).thenReturn(Optional.empty());
+
+        // Act & Assert (exception expected)
+        resolver.resolve("UNKNOWN00000");
+    }
+}
@@ -0,0 +1,98 @@
+package backend.service;
+
+import backend.dto.PatientSearchResult;
+import backend.repository.PatientRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * JMH measurement of {@link PatientSearchIndex} on 200,000 synthetic patients: building the index and answering
+ * name, email and phone queries. Names are built from syllables so trigram lists overlap the way real names do;
+ * the candidate rows come from an in-memory stand-in for the repository. Run {@link #main} after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSearchIndexBenchmark {
+
+    private static final int PATIENTS = 200_000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "an", "el", "to", "sa", "ne", "ri", "jo", "ha",
+        "be", "li", "da", "mo", "ve", "ni", "sh", "ar", "pe", "lu", "go", "ta", "fi", "on", "er", "ma", "zu", "di"};
+
+    private final Map<Long, PatientSearchResult> rows = new HashMap<>();
+    private final List<String> queries = new ArrayList<>();
+    private PatientRepository repo;
+    private PatientSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        repo = Mockito.mock(PatientRepository.class);
+        Mockito.when(repo.findSearchRows(any())).thenAnswer(i -> {
+            Collection<Long> ids = i.getArgument(0);
+            return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+        });
+        index = new PatientSearchIndex(null, repo);
+        index.rebuild(patients());
+        for (long id = 1; id <= 50; id++) {
+            PatientSearchResult r = rows.get(id);
+            queries.add(r.fullName.substring(0, 9));
+            queries.add(r.email.substring(0, 8));
+            queries.add(r.phone.substring(2, 9));
+        }
+    }
+
+    @Benchmark
+    public List<PatientSearchResult> search() {
+        String q = queries.get(next);
+        next = (next + 1) % queries.size();
+        return index.search(q, 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PatientSearchIndex.Stats rebuild() {
+        PatientSearchIndex fresh = new PatientSearchIndex(null, repo);
+        fresh.rebuild(patients());
+        return fresh.stats();
+    }
+
+    private Stream<Object[]> patients() {
+        return IntStream.range(0, PATIENTS).mapToObj(i -> {
+            int x = (int) (((long) i * 7919 + 13) % 810_000_000L);
+            String first = SYLLABLES[x % 30] + SYLLABLES[(x / 30) % 30] + SYLLABLES[(x / 900) % 30];
+            String last = SYLLABLES[(x / 27_000) % 30] + SYLLABLES[(i * 31 + 7) % 30] + SYLLABLES[(i / 13) % 30] + "n";
+            long id = i + 1;
+            String email = first + "." + last + (i % 100) + "@example.com";
+            String phone = "07" + (100_000_000 + (long) i * 2_654_435_761L % 900_000_000);
+            rows.put(id, new PatientSearchResult(id, "H" + id, first + " " + last, email, phone));
+            return new Object[] { id, first + " " + last, email, phone };
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PatientSearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
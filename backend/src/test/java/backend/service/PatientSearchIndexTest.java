@@ -0,0 +1,191 @@
+package backend.service;
+
+import backend.dto.PatientSearchResult;
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientSearchIndex
+ */
+public class PatientSearchIndexTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private PatientSearchIndex index;
+    private Map<Long, PatientSearchResult> rows;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        index = new PatientSearchIndex(null, patientRepository);
+        rows = new HashMap<>();
+        when(patientRepository.findSearchRows(any())).thenAnswer(i -> {
+            Collection<Long> ids = i.getArgument(0);
+            return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+        });
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testSearch_RanksPrefixMatchesFirst() {
+        // Arrange
+        index.rebuild(Stream.of(
+            row(1, "Maria Johansson", "maria.j@example.com", "+1 555 0100"),
+            row(2, "John Smith", "jsmith@example.com", "555-0199"),
+            row(3, "Annie Johnson", "annie@example.com", null)));
+
+        // Act
+        List<PatientSearchResult> byName = index.search("john", 10);
+        List<PatientSearchResult> byEmail = index.search("ANNIE@EX", 10);
+        List<PatientSearchResult> byPhone = index.search("(555) 0199", 10);
+
+        // Assert
+        List<Long> nameIds = byName.stream().map(r -> r.id).toList();
+        Assert.assertEquals(nameIds, List.of(2L, 3L, 1L));
+        Assert.assertEquals(byEmail.get(0).id, Long.valueOf(3L));
+        Assert.assertEquals(byPhone.get(0).id, Long.valueOf(2L));
+        verify(patientRepository, never()).findAll();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testAdd_RegisteredPatientIsSearchable() {
+        // Arrange
+        index.rebuild(Stream.<Object[]>of(row(1, "Maria Johansson", "maria.j@example.com", null)));
+        Patient p = new Patient();
+        p.setId(2L);
+        p.setFullName("Peter Parkinson");
+        p.setEmail("peter@example.com");
+        rows.put(2L, new PatientSearchResult(2L, "H2", p.getFullName(), p.getEmail(), null));
+
+        // Act
+        index.add(p);
+        List<PatientSearchResult> result = index.search("parkin", 5);
+
+        // Assert
+        Assert.assertEquals(result.size(), 1);
+        Assert.assertEquals(result.get(0).fullName, "Peter Parkinson");
+        Assert.assertEquals(index.stats().documents(), 2);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testSearch_RejectsShortQueryAndAnswersBusyBeforeBuild() {
+        // Act & Assert
+        Assert.assertThrows(ServiceBusyException.class, () -> index.search("john", 10));
+        Assert.assertThrows(IllegalArgumentException.class, () -> index.search(" j ", 10));
+        Assert.assertFalse(index.stats().ready());
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testRebuild_ReplaysRegistrationsTheScanMissed() {
+        // Arrange: patient 2 commits after the scan has passed its id; patient 4 is registered and then scanned
+        Object[] four = row(4, "Olga Petrova", "olga@example.com", null);
+        Iterator<Object[]> scan = List.of(row(1, "Maria Johansson", "maria.j@example.com", null),
+            row(3, "John Smith", "jsmith@example.com", null), four).iterator();
+        Stream<Object[]> rowsDuringRegistrations = Stream.generate(() -> {
+            Object[] next = scan.next();
+            if (next[0].equals(3L)) {
+                index.add(patient(2, "Peter Parkinson", "peter@example.com"));
+                index.add(patient(4, "Olga Petrova", "olga@example.com"));
+            }
+            return next;
+        }).limit(3);
+        rows.put(2L, new PatientSearchResult(2L, "H2", "Peter Parkinson", "peter@example.com", null));
+
+        // Act
+        index.rebuild(rowsDuringRegistrations);
+
+        // Assert
+        Assert.assertEquals(index.search("parkin", 5).get(0).id, Long.valueOf(2L));
+        Assert.assertEquals(index.stats().documents(), 4);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testRebuild_SecondRebuildWaitsForTheFirst() throws InterruptedException {
+        // Arrange: a second rebuild is started while the first one is scanning
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread second = new Thread(() -> {
+            try {
+                index.rebuild(Stream.<Object[]>of(row(5, "Olga Petrova", "olga@example.com", null)));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        AtomicReference<Boolean> secondBlocked = new AtomicReference<>();
+        Iterator<Object[]> scan = List.of(row(1, "Maria Johansson", "maria.j@example.com", null),
+            row(3, "John Smith", "jsmith@example.com", null)).iterator();
+        Stream<Object[]> slowScan = Stream.generate(() -> {
+            Object[] next = scan.next();
+            if (next[0].equals(1L)) {
+                second.start();
+                try {
+                    second.join(200);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                secondBlocked.set(second.isAlive());
+            }
+            return next;
+        }).limit(2);
+
+        // Act
+        index.rebuild(slowScan);
+        second.join(5000);
+
+        // Assert: the second rebuild ran after the first instead of clearing its pending list
+        Assert.assertTrue(secondBlocked.get());
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(index.stats().documents(), 1);
+        Assert.assertEquals(index.search("petrova", 5).get(0).id, Long.valueOf(5L));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testBuildOnStartup_DatabaseErrorLeavesSearchBusy() {
+        // Arrange
+        EntityManagerFactory emf = mock(EntityManagerFactory.class);
+        when(emf.unwrap(SessionFactory.class)).thenThrow(new PersistenceException("database unavailable"));
+        PatientSearchIndex startupIndex = new PatientSearchIndex(emf, patientRepository);
+
+        // Act
+        startupIndex.buildOnStartup();
+
+        // Assert
+        Assert.assertFalse(startupIndex.stats().ready());
+        Assert.assertThrows(ServiceBusyException.class, () -> startupIndex.search("john", 10));
+        Assert.assertThrows(PersistenceException.class, startupIndex::rebuild);
+    }
+
+    private Patient patient(long id, String name, String email) {
+        Patient p = new Patient();
+        p.setId(id);
+        p.setFullName(name);
+        p.setEmail(email);
+        return p;
+    }
+
+    private Object[] row(long id, String name, String email, String phone) {
+        rows.put(id, new PatientSearchResult(id, "H" + id, name, email, phone));
+        return new Object[] { id, name, email, phone };
+    }
+}
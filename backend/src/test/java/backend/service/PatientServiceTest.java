@@ -1,13 +1,17 @@
 package backend.service;
 
+import backend.config.AsyncConfig;
 import backend.dto.LoginRequest;
 import backend.dto.LoginResponse;
 import backend.dto.RegisterRequest;
 import backend.dto.RegisterResponse;
 import backend.model.Patient;
 import backend.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
@@ -15,6 +19,8 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -29,17 +35,24 @@ public class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
     
+    @Mock
+    private PatientSearchIndex searchIndex;
+    
     private PatientService patientService;
+    private ThreadPoolTaskExecutor hashExecutor;
     private AutoCloseable closeable;
     
     @BeforeMethod
     public void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
-        patientService = new PatientService(patientRepository);
+        hashExecutor = new AsyncConfig().passwordHashExecutor(2, 16);
+        patientService = new PatientService(patientRepository, new HealthIdGenerator(1),
+            new PasswordHasher(hashExecutor, new SimpleMeterRegistry(), 4, 0), searchIndex);
     }
     
     @AfterMethod
     public void tearDown() throws Exception {
+        hashExecutor.shutdown();
         closeable.close();
     }
     
@@ -65,6 +78,45 @@ public class PatientServiceTest {
         Assert.assertEquals(response.email, "john@example.com");
         Assert.assertNotNull(response.healthId);
         Assert.assertEquals(response.healthId.length(), 12);
+        Assert.assertTrue(HealthIdGenerator.isValid(response.healthId));
+        verify(patientRepository, never()).existsByHealthId(anyString());
+        verify(searchIndex).add(any(Patient.class));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testRegister_HealthIdTaken_RetriesWithNewId() {
+        // Arrange: the first insert hits the unique health_id index, as when two instances share a node
+        RegisterRequest request = createValidRegisterRequest();
+        List<String> attempted = new ArrayList<>();
+        when(patientRepository.existsByEmail(request.email)).thenReturn(false);
+        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> {
+            Patient p = invocation.getArgument(0);
+            attempted.add(p.getHealthId());
+            if (attempted.size() == 1) throw new DataIntegrityViolationException("uk_patients_health_id");
+            p.setId(1L);
+            return p;
+        });
+        
+        // Act
+        RegisterResponse response = patientService.register(request);
+        
+        // Assert
+        Assert.assertEquals(attempted.size(), 2);
+        Assert.assertNotEquals(attempted.get(1), attempted.get(0));
+        Assert.assertEquals(response.healthId, attempted.get(1));
+        verify(searchIndex, times(1)).add(any(Patient.class));
+    }
+    
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class,
+          expectedExceptionsMessageRegExp = "Email already registered")
+    public void testRegister_EmailTakenConcurrently_ThrowsException() {
+        // Arrange
+        RegisterRequest request = createValidRegisterRequest();
+        when(patientRepository.existsByEmail(request.email)).thenReturn(false, true);
+        when(patientRepository.save(any(Patient.class))).thenThrow(new DataIntegrityViolationException("uk_patients_email"));
+        
+        // Act & Assert (exception expected)
+        patientService.register(request);
     }
     
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
@@ -98,6 +150,46 @@ public class PatientServiceTest {
         Assert.assertNotNull(response.healthId);
     }
     
+    @Test(groups = {"unit", "service"})
+    public void testLogin_KeepsHashWithHigherCost() {
+        // Arrange: stored with the library default cost 10, service runs at cost 4
+        Patient patient = createPatientWithCredentials();
+        String stored = patient.getPasswordHash();
+        when(patientRepository.findByEmail("john@example.com")).thenReturn(Optional.of(patient));
+        LoginRequest request = new LoginRequest();
+        request.email = "john@example.com";
+        request.password = "password123";
+        
+        // Act
+        patientService.login(request);
+        
+        // Assert: a stronger hash is never downgraded
+        Assert.assertEquals(patient.getPasswordHash(), stored);
+        verify(patientRepository, never()).save(any(Patient.class));
+    }
+    
+    @Test(groups = {"unit", "service"})
+    public void testLogin_UpgradesHashWithLowerCost() {
+        // Arrange: stored at cost 4, service runs at cost 5
+        PatientService stronger = new PatientService(patientRepository, new HealthIdGenerator(1),
+            new PasswordHasher(hashExecutor, new SimpleMeterRegistry(), 5, 0), searchIndex);
+        Patient patient = createPatientWithCredentials();
+        patient.setPasswordHash(new BCryptPasswordEncoder(4).encode("password123"));
+        when(patientRepository.findByEmail("john@example.com")).thenReturn(Optional.of(patient));
+        LoginRequest request = new LoginRequest();
+        request.email = "john@example.com";
+        request.password = "password123";
+        
+        // Act
+        stronger.login(request);
+        stronger.login(request);
+        
+        // Assert: upgraded once, and the new hash still verifies
+        Assert.assertEquals(PasswordHasher.costOf(patient.getPasswordHash()), 5);
+        Assert.assertTrue(new BCryptPasswordEncoder().matches("password123", patient.getPasswordHash()));
+        verify(patientRepository, times(1)).save(patient);
+    }
+    
     @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
     public void testLogin_UserNotFound_ThrowsException() {
         // Arrange
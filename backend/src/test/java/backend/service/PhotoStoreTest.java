@@ -0,0 +1,87 @@
+package backend.service;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for PhotoStore
+ */
+public class PhotoStoreTest {
+
+    private Path dir;
+    private PhotoStore store;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("photos");
+        store = new PhotoStore(dir);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPut_NamesFileBySha256() throws IOException {
+        // Act
+        String hash = store.put("abc".getBytes(StandardCharsets.US_ASCII));
+
+        // Assert
+        Assert.assertEquals(hash, "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        Assert.assertTrue(store.exists(hash));
+        Assert.assertEquals(store.path(hash), dir.toAbsolutePath().resolve("ba").resolve(hash));
+        Assert.assertEquals(Files.readAllBytes(store.path(hash)), "abc".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPut_IdenticalContentStoredOnce() throws IOException {
+        // Act
+        String first = store.put(new byte[]{1, 2, 3});
+        String second = store.put(new byte[]{1, 2, 3});
+
+        // Assert: one file, and no temporary uploads left behind
+        Assert.assertEquals(second, first);
+        try (Stream<Path> files = Files.walk(dir)) {
+            Assert.assertEquals(files.filter(Files::isRegularFile).count(), 1L);
+        }
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testSweep_ReuploadRefreshesAnOrphanedFile() throws IOException {
+        // Arrange: an orphaned file that a new upload of the same bytes is about to reuse
+        String hash = store.put(new byte[]{4, 5, 6});
+        Instant cutoff = Instant.now().minusSeconds(60);
+        Files.setLastModifiedTime(store.path(hash), FileTime.from(cutoff.minusSeconds(3600)));
+        Path part = Files.writeString(Files.createTempFile(dir.resolve("tmp"), "upload-", ".part"), "in progress");
+        Files.setLastModifiedTime(part, FileTime.from(cutoff.minusSeconds(3600)));
+
+        // Act
+        store.put(new byte[]{4, 5, 6});
+        int deleted = store.sweep(Set.of(), cutoff);
+
+        // Assert: the reused file and the upload in progress both survive
+        Assert.assertEquals(deleted, 0);
+        Assert.assertTrue(store.exists(hash));
+        Assert.assertTrue(Files.exists(part));
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testPath_RejectsNonHash() {
+        store.path("../../etc/passwd");
+    }
+}
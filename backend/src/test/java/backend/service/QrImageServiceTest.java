@@ -0,0 +1,124 @@
+package backend.service;
+
+import backend.util.LruCache;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for QrImageService
+ */
+public class QrImageServiceTest {
+
+    @Test(groups = {"unit", "service"})
+    public void testPng_SecondRequestServedFromCache() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QrImageService service = new QrImageService(16 * 1024 * 1024, registry);
+
+        // Act
+        QrImageService.QrImage first = service.png("HEALTH123456", QrImageService.DEFAULT_SIZE);
+        QrImageService.QrImage second = service.png("HEALTH123456", QrImageService.DEFAULT_SIZE);
+
+        // Assert
+        Assert.assertSame(second, first);
+        Assert.assertEquals(service.stats().hits(), 1);
+        Assert.assertEquals(service.stats().misses(), 1);
+        Assert.assertEquals(registry.get("qr.cache.hits").functionCounter().count(), 1.0);
+        Assert.assertEquals(service.stats().weight(), first.bytes().length);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPng_EtagIsStableAcrossInstances() {
+        // Arrange
+        QrImageService a = new QrImageService(1024 * 1024, new SimpleMeterRegistry());
+        QrImageService b = new QrImageService(1024 * 1024, new SimpleMeterRegistry());
+
+        // Act
+        String etagA = a.png("HEALTH123456", 200).etag();
+        String etagB = b.png("HEALTH123456", 200).etag();
+        String other = a.png("HEALTH654321", 200).etag();
+
+        // Assert: strong validator, same bytes give the same tag on every node
+        Assert.assertTrue(etagA.startsWith("\"") && etagA.endsWith("\""));
+        Assert.assertEquals(etagB, etagA);
+        Assert.assertNotEquals(other, etagA);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPng_EvictsLeastRecentlyUsedWhenOverByteBudget() {
+        // Arrange: room for roughly one image
+        QrImageService probe = new QrImageService(1024 * 1024, new SimpleMeterRegistry());
+        int oneImage = probe.png("HEALTH000001", QrImageService.DEFAULT_SIZE).bytes().length;
+        QrImageService service = new QrImageService(oneImage + oneImage / 2, new SimpleMeterRegistry());
+
+        // Act
+        service.png("HEALTH000001", QrImageService.DEFAULT_SIZE);
+        service.png("HEALTH000002", QrImageService.DEFAULT_SIZE);
+
+        // Assert
+        Assert.assertEquals(service.stats().size(), 1);
+        Assert.assertEquals(service.stats().evictions(), 1);
+        Assert.assertTrue(service.stats().weight() <= service.stats().maxWeight());
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testRender_VariantsAreCachedSeparately() {
+        // Arrange
+        QrImageService service = new QrImageService(1024 * 1024, new SimpleMeterRegistry());
+
+        // Act
+        QrImageService.QrImage png = service.png("HEALTH123456", 200);
+        QrImageService.QrImage svg = service.render("HEALTH123456", QrImageService.Format.SVG, 200, 4, ErrorCorrectionLevel.L);
+        QrImageService.QrImage highEcc = service.render("HEALTH123456", QrImageService.Format.SVG, 200, 4, ErrorCorrectionLevel.H);
+
+        // Assert
+        Assert.assertEquals(svg.format().contentType, "image/svg+xml");
+        Assert.assertTrue(new String(svg.bytes(), StandardCharsets.UTF_8).startsWith("<svg "));
+        Assert.assertNotEquals(svg.etag(), png.etag());
+        Assert.assertNotEquals(highEcc.etag(), svg.etag());
+        Assert.assertEquals(service.stats().size(), 3);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testParsing_AcceptsAnyCase() {
+        Assert.assertEquals(QrImageService.Format.of("svg"), QrImageService.Format.SVG);
+        Assert.assertEquals(QrImageService.errorCorrection("q"), ErrorCorrectionLevel.Q);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testParsing_UnknownFormat_ThrowsException() {
+        QrImageService.Format.of("gif");
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testRender_MarginOutOfRange_ThrowsException() {
+        new QrImageService(1024, new SimpleMeterRegistry())
+                .render("HEALTH123456", QrImageService.Format.PNG, 300, QrImageService.MAX_MARGIN + 1, ErrorCorrectionLevel.L);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testPng_SizeOutOfRange_ThrowsException() {
+        new QrImageService(1024, new SimpleMeterRegistry()).png("HEALTH123456", QrImageService.MAX_SIZE + 1);
+    }
+
+    @Test(groups = {"unit"})
+    public void testLruCache_WeightedEviction() {
+        // Arrange
+        LruCache<String, byte[]> cache = new LruCache<>(10, v -> v.length);
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        cache.get("a");
+
+        // Act
+        cache.put("c", new byte[4]);
+
+        // Assert: "b" was least recently used
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertEquals(cache.stats().weight(), 8);
+    }
+}
@@ -0,0 +1,181 @@
+package backend.service;
+
+import backend.dto.QrSheetRequest;
+import backend.model.Patient;
+import backend.repository.PatientRepository;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QrSheetService
+ */
+public class QrSheetServiceTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private StatelessSession session;
+
+    @Mock
+    private Query<Object[]> query;
+
+    @Mock
+    private ScrollableResults<Object[]> rows;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private QrSheetService qrSheetService;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        qrSheetService = new QrSheetService(sessionFactory, patientRepository, Runnable::run, QrSheetService.FETCH_SIZE);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.createQuery(anyString(), eq(Object[].class))).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(rows);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWrite_ByHealthIds_LooksUpInChunksAndSkipsUnknown() throws Exception {
+        // Arrange: 600 requested, every third one unknown
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 600; i++) ids.add(String.format("HEALTH%06d", i));
+        when(patientRepository.findByHealthIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<String> chunk = inv.getArgument(0);
+            return chunk.stream().filter(id -> Integer.parseInt(id.substring(6)) % 3 != 0).map(id -> {
+                Patient p = new Patient();
+                p.setHealthId(id);
+                p.setFullName("Patient " + id);
+                return p;
+            }).toList();
+        });
+        QrSheetRequest req = new QrSheetRequest();
+        req.healthIds = ids;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        qrSheetService.write(req, out);
+
+        // Assert
+        Assert.assertTrue(new String(out.toByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
+        verify(patientRepository, times(2)).findByHealthIdIn(anyCollection());
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWrite_ByDateRange_StreamsEveryPatientFromTheCursor() throws Exception {
+        // Arrange: 400 patients registered up to and including the 'to' day
+        int[] served = {0};
+        when(rows.next()).thenAnswer(inv -> served[0] < 400);
+        when(rows.get()).thenAnswer(inv -> {
+            int i = served[0]++;
+            return new Object[]{String.format("HEALTH%06d", i), "Patient " + i};
+        });
+        QrSheetRequest req = new QrSheetRequest();
+        req.to = LocalDate.of(2026, 3, 31);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        qrSheetService.write(req, out);
+
+        // Assert: 33 full pages of 12 cards and 4 on the last one
+        PdfReader pdf = new PdfReader(out.toByteArray());
+        Assert.assertEquals(pdf.getNumberOfPages(), 34);
+        PdfTextExtractor text = new PdfTextExtractor(pdf);
+        Assert.assertEquals(text.getTextFromPage(1).split("Patient ", -1).length - 1, QrSheetService.CARDS_PER_PAGE);
+        String last = text.getTextFromPage(34);
+        Assert.assertEquals(last.split("Patient ", -1).length - 1, 4);
+        Assert.assertTrue(last.contains("Patient 399"));
+        verify(rows, times(400)).get();
+        verify(rows).close();
+        verify(session).close();
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testWrite_ByDateRange_BindsOpenStartAndExclusiveEnd() throws Exception {
+        // Arrange
+        when(rows.next()).thenReturn(false);
+        QrSheetRequest req = new QrSheetRequest();
+        req.to = LocalDate.of(2026, 3, 31);
+
+        // Act
+        qrSheetService.write(req, new ByteArrayOutputStream());
+
+        // Assert: no lower bound, and the whole 'to' day is included by stopping before the next midnight
+        OffsetDateTime nextMidnight = LocalDate.of(2026, 4, 1).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+        verify(session).createQuery(contains("(:from is null or p.createdAt >= :from)"), eq(Object[].class));
+        verify(session).createQuery(contains("(:to is null or p.createdAt < :to)"), eq(Object[].class));
+        verify(query).setParameter("from", null, OffsetDateTime.class);
+        verify(query).setParameter("to", nextMidnight, OffsetDateTime.class);
+        verify(query).setFetchSize(QrSheetService.FETCH_SIZE);
+        verify(query).setReadOnly(true);
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testValidate_DateRangeOnly_Accepted() {
+        // Arrange
+        QrSheetRequest req = new QrSheetRequest();
+        req.from = LocalDate.of(2026, 3, 1);
+
+        // Act & Assert (no exception)
+        qrSheetService.validate(req);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testValidate_NeitherIdsNorDates_ThrowsException() {
+        qrSheetService.validate(new QrSheetRequest());
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testValidate_IdsAndDates_ThrowsException() {
+        // Arrange
+        QrSheetRequest req = new QrSheetRequest();
+        req.healthIds = List.of("HEALTH123456");
+        req.to = LocalDate.of(2026, 3, 1);
+
+        // Act & Assert (exception expected)
+        qrSheetService.validate(req);
+    }
+
+    @Test(groups = {"unit", "service"}, expectedExceptions = IllegalArgumentException.class)
+    public void testValidate_ReversedRange_ThrowsException() {
+        // Arrange
+        QrSheetRequest req = new QrSheetRequest();
+        req.from = LocalDate.of(2026, 3, 2);
+        req.to = LocalDate.of(2026, 3, 1);
+
+        // Act & Assert (exception expected)
+        qrSheetService.validate(req);
+    }
+}
@@ -0,0 +1,56 @@
+package backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of per-request authentication costs: verifying an access token with {@link TokenService}
+ * against re-checking the password with one BCrypt match at the library default cost.
+ * Run {@link #main} after {@code mvn test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private TokenService tokenService;
+    private BCryptPasswordEncoder encoder;
+    private String token;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7));
+        token = tokenService.issue(TokenService.Role.PATIENT, "HEALTH123456").accessToken;
+        encoder = new BCryptPasswordEncoder();
+        hash = encoder.encode("password123");
+    }
+
+    @Benchmark
+    public TokenService.Principal verifyToken() {
+        return tokenService.verifyAccess(token);
+    }
+
+    @Benchmark
+    public boolean checkPassword() {
+        return encoder.matches("password123", hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
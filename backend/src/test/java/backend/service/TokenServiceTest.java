@@ -0,0 +1,57 @@
+package backend.service;
+
+import backend.dto.TokenPair;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Unit tests for TokenService
+ */
+public class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private TokenService tokenService;
+
+    @BeforeMethod
+    public void setUp() {
+        tokenService = new TokenService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testIssueAndVerify_RoundTrip() {
+        // Act
+        TokenPair pair = tokenService.issue(TokenService.Role.PATIENT, "HEALTH123456");
+        TokenService.Principal principal = tokenService.verifyAccess(pair.accessToken);
+        TokenPair refreshed = tokenService.refresh(pair.refreshToken);
+
+        // Assert
+        Assert.assertEquals(principal, new TokenService.Principal(TokenService.Role.PATIENT, "HEALTH123456"));
+        Assert.assertEquals(pair.expiresIn, 900);
+        Assert.assertNotEquals(refreshed.accessToken, pair.accessToken);
+        Assert.assertEquals(tokenService.verifyAccess(refreshed.accessToken).subject(), "HEALTH123456");
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testVerifyAccess_RejectsWrongTypeForgedAndExpired() {
+        // Arrange
+        TokenPair pair = tokenService.issue(TokenService.Role.DOCTOR, "7");
+        String forged = pair.accessToken.substring(0, pair.accessToken.length() - 2) + "xx";
+        String otherKey = new TokenService("", Duration.ofMinutes(15), Duration.ofDays(7))
+            .issue(TokenService.Role.DOCTOR, "7").accessToken;
+        String expired = new TokenService(SECRET, Duration.ofMinutes(-5), Duration.ofDays(7))
+            .issue(TokenService.Role.DOCTOR, "7").accessToken;
+
+        // Act & Assert
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.verifyAccess(pair.refreshToken));
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.refresh(pair.accessToken));
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.verifyAccess(forged));
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.verifyAccess(otherKey));
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.verifyAccess(expired));
+        Assert.assertThrows(InvalidTokenException.class, () -> tokenService.verifyAccess(null));
+    }
+}
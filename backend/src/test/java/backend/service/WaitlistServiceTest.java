@@ -0,0 +1,201 @@
+package backend.service;
+
+import backend.dto.WaitlistRow;
+import backend.model.Appointment;
+import backend.model.Doctor;
+import backend.model.Patient;
+import backend.model.WaitlistEntry;
+import backend.repository.AppointmentRepository;
+import backend.repository.DoctorRepository;
+import backend.repository.DoctorScheduleRepository;
+import backend.repository.PatientRepository;
+import backend.repository.WaitlistEntryRepository;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WaitlistService
+ */
+public class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private DoctorScheduleRepository scheduleRepository;
+
+    private WaitlistService waitlistService;
+    private SlotAvailabilityIndex slotIndex;
+    private Doctor testDoctor;
+    private LocalDate date;
+    private AutoCloseable closeable;
+
+    @BeforeMethod
+    public void setUp() {
+        closeable = MockitoAnnotations.openMocks(this);
+        slotIndex = new SlotAvailabilityIndex(new SlotTemplates(scheduleRepository));
+        waitlistService = new WaitlistService(waitlistRepository, appointmentRepository, doctorRepository, new PatientResolver(patientRepository, 1000), slotIndex);
+
+        testDoctor = new Doctor();
+        testDoctor.setId(1L);
+        testDoctor.setName("Dr. Test");
+        date = LocalDate.now().plusDays(1);
+        when(doctorRepository.findById(1L)).thenReturn(Optional.of(testDoctor));
+        when(appointmentRepository.findByDoctorAndDate(any(Doctor.class), any(LocalDate.class))).thenReturn(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        closeable.close();
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPromote_FirstWaiterGetsSlot() {
+        // Arrange
+        WaitlistEntry first = entry(10L, "HEALTH000001");
+        WaitlistEntry second = entry(11L, "HEALTH000002");
+        when(waitlistRepository.findTop20ByDoctorIdAndDateOrderByCreatedAtAscIdAsc(1L, date)).thenReturn(List.of(first, second));
+        when(waitlistRepository.deleteEntry(anyLong())).thenReturn(1);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        Appointment promoted = waitlistService.promote(new SlotFreedEvent(1L, date, LocalTime.of(10, 0)));
+
+        // Assert
+        Assert.assertNotNull(promoted);
+        Assert.assertEquals(promoted.getPatient().getHealthId(), "HEALTH000001");
+        Assert.assertEquals(promoted.getStatus(), Appointment.Status.PENDING);
+        verify(waitlistRepository).deleteEntry(10L);
+        verify(waitlistRepository, never()).deleteEntry(11L);
+        Assert.assertFalse(slotIndex.freeSlots(1L, date, slotIndex.occupancy(1L, date, List::of)).contains(LocalTime.of(10, 0)));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testPromote_NobodyWaiting_ReleasesSlot() {
+        // Arrange
+        when(waitlistRepository.findTop20ByDoctorIdAndDateOrderByCreatedAtAscIdAsc(1L, date)).thenReturn(List.of());
+
+        // Act
+        Appointment promoted = waitlistService.promote(new SlotFreedEvent(1L, date, LocalTime.of(10, 0)));
+
+        // Assert
+        Assert.assertNull(promoted);
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        Assert.assertTrue(slotIndex.freeSlots(1L, date, slotIndex.occupancy(1L, date, List::of)).contains(LocalTime.of(10, 0)));
+    }
+
+    @Test(groups = {"unit", "service", "concurrency"})
+    public void testPromote_ConcurrentEventsForSameSlot_BookOnce() throws Exception {
+        // Arrange: the same cancellation delivered to many handlers at once
+        List<WaitlistEntry> waiting = List.of(entry(10L, "HEALTH000001"), entry(11L, "HEALTH000002"), entry(12L, "HEALTH000003"));
+        Set<Long> removed = ConcurrentHashMap.newKeySet();
+        when(waitlistRepository.findTop20ByDoctorIdAndDateOrderByCreatedAtAscIdAsc(1L, date)).thenReturn(waiting);
+        when(waitlistRepository.deleteEntry(anyLong())).thenAnswer(i -> removed.add(i.getArgument(0)) ? 1 : 0);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(i -> i.getArgument(0));
+        SlotFreedEvent event = new SlotFreedEvent(1L, date, LocalTime.of(10, 0));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Appointment>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return waitlistService.promote(event);
+            }));
+        }
+        start.countDown();
+        int promoted = 0;
+        for (Future<Appointment> f : futures) {
+            if (f.get(10, TimeUnit.SECONDS) != null) promoted++;
+        }
+        pool.shutdown();
+
+        // Assert
+        Assert.assertEquals(promoted, 1);
+        Assert.assertEquals(removed, Set.of(10L));
+        verify(appointmentRepository, times(1)).save(any(Appointment.class));
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testJoin_ReturnsRowWithQueuePosition() {
+        // Arrange
+        Patient patient = new Patient();
+        patient.setId(5L);
+        patient.setHealthId("HEALTH000005");
+        patient.setFullName("Jane Doe");
+        when(patientRepository.findByHealthId("HEALTH000005")).thenReturn(Optional.of(patient));
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(i -> {
+            WaitlistEntry e = i.getArgument(0);
+            e.setId(42L);
+            return e;
+        });
+        when(waitlistRepository.countUpTo(eq(1L), eq(date), any(), eq(42L))).thenReturn(3L);
+
+        // Act
+        WaitlistRow row = waitlistService.join("HEALTH000005", 1L, date);
+
+        // Assert
+        Assert.assertEquals(row.id, Long.valueOf(42L));
+        Assert.assertEquals(row.position, 3);
+        Assert.assertEquals(row.date, date);
+        Assert.assertNotNull(row.joinedAt);
+        Assert.assertEquals(row.patient.healthId, "HEALTH000005");
+        Assert.assertEquals(row.patient.fullName, "Jane Doe");
+    }
+
+    @Test(groups = {"unit", "service"})
+    public void testList_NumbersRowsInQueueOrder() {
+        // Arrange
+        when(waitlistRepository.findRows(1L, date)).thenReturn(List.of(
+                new WaitlistRow(10L, date, OffsetDateTime.now().minusMinutes(5), "HEALTH000001", "A"),
+                new WaitlistRow(11L, date, OffsetDateTime.now(), "HEALTH000002", "B")));
+
+        // Act
+        List<WaitlistRow> rows = waitlistService.list(1L, date);
+
+        // Assert
+        Assert.assertEquals(rows.get(0).position, 1);
+        Assert.assertEquals(rows.get(1).position, 2);
+        Assert.assertEquals(rows.get(1).patient.healthId, "HEALTH000002");
+    }
+
+    private WaitlistEntry entry(Long id, String healthId) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setHealthId(healthId);
+        WaitlistEntry e = new WaitlistEntry();
+        e.setId(id);
+        e.setPatient(patient);
+        e.setDoctor(testDoctor);
+        e.setDate(date);
+        return e;
+    }
+}
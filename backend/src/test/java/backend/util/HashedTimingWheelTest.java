@@ -0,0 +1,118 @@
+package backend.util;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for HashedTimingWheel
+ */
+public class HashedTimingWheelTest {
+
+    private final List<String> fired = new ArrayList<>();
+
+    @BeforeMethod
+    public void setUp() {
+        fired.clear();
+    }
+
+    private HashedTimingWheel<String> wheel(int size) {
+        return new HashedTimingWheel<>(10, size, fired::add);
+    }
+
+    private static void advance(HashedTimingWheel<?> wheel, int ticks) {
+        for (int i = 0; i < ticks; i++) wheel.advance();
+    }
+
+    @Test(groups = {"unit"})
+    public void testSchedule_FiresOnDeadlineTick() {
+        // Arrange: 30ms at 10ms per tick is 3 ticks, plus the guard tick
+        HashedTimingWheel<String> wheel = wheel(8);
+        wheel.schedule("a", 30);
+
+        // Act & Assert
+        advance(wheel, 3);
+        Assert.assertTrue(fired.isEmpty());
+        wheel.advance();
+        Assert.assertEquals(fired, List.of("a"));
+        Assert.assertEquals(wheel.pending(), 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testSchedule_DeadlineWrapsPastLastBucket() {
+        // Arrange: at tick 6 of a 4-bucket wheel, a 1-tick delay lands in bucket 0 (deadline 8)
+        HashedTimingWheel<String> wheel = wheel(4);
+        advance(wheel, 6);
+        wheel.schedule("a", 10);
+
+        // Act & Assert
+        wheel.advance();
+        Assert.assertTrue(fired.isEmpty());
+        wheel.advance();
+        Assert.assertEquals(fired, List.of("a"));
+    }
+
+    @Test(groups = {"unit"})
+    public void testSchedule_LongDelaySurvivesEarlierRounds() {
+        // Arrange: deadline 10 on a 4-bucket wheel shares bucket 2 with ticks 2 and 6
+        HashedTimingWheel<String> wheel = wheel(4);
+        wheel.schedule("late", 90);
+        wheel.schedule("early", 10);
+
+        // Act & Assert
+        advance(wheel, 2);
+        Assert.assertEquals(fired, List.of("early"));
+        advance(wheel, 7);
+        Assert.assertEquals(fired, List.of("early"));
+        wheel.advance();
+        Assert.assertEquals(fired, List.of("early", "late"));
+        advance(wheel, 8);
+        Assert.assertEquals(fired, List.of("early", "late"));
+    }
+
+    @Test(groups = {"unit"})
+    public void testCancel_UnlinksTimeoutAndPreventsFiring() {
+        // Arrange
+        HashedTimingWheel<String> wheel = wheel(4);
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 10);
+        HashedTimingWheel.Timeout<String> kept = wheel.schedule("kept", 10);
+
+        // Act
+        boolean first = cancelled.cancel();
+        boolean second = cancelled.cancel();
+        advance(wheel, 2);
+
+        // Assert
+        Assert.assertTrue(first);
+        Assert.assertFalse(second);
+        Assert.assertEquals(fired, List.of("kept"));
+        Assert.assertFalse(kept.cancel(), "a fired timeout can no longer be cancelled");
+        Assert.assertEquals(wheel.pending(), 0);
+    }
+
+    @Test(groups = {"unit"})
+    public void testAdvance_FailingHandlerDoesNotStopSweep() {
+        // Arrange
+        List<String> seen = new ArrayList<>();
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, v -> {
+            seen.add(v);
+            if (v.equals("bad")) throw new IllegalStateException("handler failed");
+        });
+        wheel.schedule("bad", 10);
+        wheel.schedule("good", 10);
+
+        // Act
+        advance(wheel, 2);
+
+        // Assert
+        Assert.assertEquals(seen, List.of("bad", "good"));
+    }
+
+    @Test(groups = {"unit"}, expectedExceptions = IllegalArgumentException.class)
+    public void testConstructor_RejectsNonPowerOfTwoSize() {
+        new HashedTimingWheel<String>(10, 6, v -> {});
+    }
+}
@@ -0,0 +1,78 @@
+package backend.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the BufferedImage + ImageIO path with {@link QrPngEncoder}, end to end and rendering only.
+ * Run {@link #main} after {@code mvn test-compile}; the GC profiler reports the allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrPngEncoderBenchmark {
+
+    @Param({"300", "1024"})
+    public int size;
+
+    private final String healthId = "G2QJ7W0K5D1M";
+    private BitMatrix rendered;
+    private BitMatrix modules;
+
+    @Setup
+    public void setUp() throws WriterException {
+        rendered = new QRCodeWriter().encode(healthId, BarcodeFormat.QR_CODE, size, size);
+        modules = QrCodeUtil.encodeModules(healthId);
+    }
+
+    @Benchmark
+    public byte[] imageIo() throws WriterException, IOException {
+        return toPng(QrCodeUtil.generateQrImage(healthId, size, size));
+    }
+
+    @Benchmark
+    public byte[] direct() throws WriterException {
+        return QrCodeUtil.generateQrPng(healthId, size, size);
+    }
+
+    @Benchmark
+    public byte[] imageIoRenderOnly() throws IOException {
+        return toPng(MatrixToImageWriter.toBufferedImage(rendered));
+    }
+
+    @Benchmark
+    public byte[] directRenderOnly() {
+        return QrPngEncoder.encode(modules, size, size);
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return baos.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QrPngEncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package backend.util;
+
+import com.google.zxing.common.BitMatrix;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Unit tests for QrPngEncoder
+ */
+public class QrPngEncoderTest {
+
+    @Test(groups = {"unit"})
+    public void testEncode_DecodesToScaledCentredModules() throws IOException {
+        // Arrange: 21x21 like a version 1 code; 29 modules with quiet zone fit 10 times into 300px
+        BitMatrix modules = randomModules(21, 42);
+
+        // Act
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrPngEncoder.encode(modules, 300, 300)));
+
+        // Assert
+        Assert.assertEquals(image.getWidth(), 300);
+        Assert.assertEquals(image.getHeight(), 300);
+        int multiple = 10;
+        int offset = (300 - 21 * multiple) / 2;
+        for (int y = 0; y < 300; y++) {
+            for (int x = 0; x < 300; x++) {
+                int mx = Math.floorDiv(x - offset, multiple);
+                int my = Math.floorDiv(y - offset, multiple);
+                boolean dark = mx >= 0 && my >= 0 && mx < 21 && my < 21 && modules.get(mx, my);
+                Assert.assertEquals(image.getRGB(x, y) & 0xFFFFFF, dark ? 0x000000 : 0xFFFFFF, "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test(groups = {"unit"})
+    public void testEncode_TooSmallRequestGrowsToFitQuietZone() throws IOException {
+        // Arrange
+        BitMatrix modules = randomModules(25, 7);
+
+        // Act
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrPngEncoder.encode(modules, 10, 10)));
+
+        // Assert: one pixel per module plus 4 modules of margin each side
+        Assert.assertEquals(image.getWidth(), 33);
+        Assert.assertEquals(image.getHeight(), 33);
+        Assert.assertEquals(image.getRGB(0, 0) & 0xFFFFFF, 0xFFFFFF);
+        Assert.assertEquals(image.getRGB(4 + 3, 4 + 5) & 0xFFFFFF, modules.get(3, 5) ? 0 : 0xFFFFFF);
+    }
+
+    @Test(groups = {"unit"})
+    public void testEncode_SmallerMarginAllowsLargerModules() throws IOException {
+        // Arrange: 21 + 2*1 modules fit 13 times into 300px, 21 + 2*4 only 10 times
+        BitMatrix modules = randomModules(21, 3);
+        modules.set(0, 0);
+
+        // Act
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrPngEncoder.encode(modules, 300, 300, 1)));
+
+        // Assert: the top-left module starts at (300 - 21*13) / 2 = 13
+        Assert.assertEquals(image.getRGB(12, 12) & 0xFFFFFF, 0xFFFFFF);
+        Assert.assertEquals(image.getRGB(13, 13) & 0xFFFFFF, 0x000000);
+        Assert.assertEquals(image.getRGB(25, 25) & 0xFFFFFF, 0x000000);
+    }
+
+    @Test(groups = {"unit"})
+    public void testEncode_ReusedBuffersGiveIdenticalOutput() {
+        // Arrange
+        BitMatrix small = randomModules(21, 1);
+        BitMatrix large = randomModules(57, 2);
+
+        // Act: a larger image in between must not leak into the next one
+        byte[] first = QrPngEncoder.encode(small, 300, 300);
+        QrPngEncoder.encode(large, 1024, 1024);
+        byte[] second = QrPngEncoder.encode(small, 300, 300);
+
+        // Assert
+        Assert.assertEquals(second, first);
+        Assert.assertTrue(first.length < 2048, "1-bit PNG should stay small, was " + first.length);
+    }
+
+    private static BitMatrix randomModules(int size, long seed) {
+        Random random = new Random(seed);
+        BitMatrix m = new BitMatrix(size, size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (random.nextBoolean()) m.set(x, y);
+            }
+        }
+        return m;
+    }
+}
@@ -0,0 +1,43 @@
+package backend.util;
+
+import com.google.zxing.common.BitMatrix;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for QrSvgEncoder
+ */
+public class QrSvgEncoderTest {
+
+    @Test(groups = {"unit"})
+    public void testEncode_MergesAdjacentModulesIntoRuns() {
+        // Arrange: row 0 = ##.#, row 1 = ....
+        BitMatrix modules = new BitMatrix(4, 2);
+        modules.set(0, 0);
+        modules.set(1, 0);
+        modules.set(3, 0);
+
+        // Act
+        String svg = QrSvgEncoder.encode(modules, 200, 2);
+
+        // Assert
+        Assert.assertTrue(svg.contains("viewBox=\"0 0 8 6\""));
+        Assert.assertTrue(svg.contains("width=\"200\" height=\"200\""));
+        Assert.assertTrue(svg.contains("d=\"M2 2h2v1h-2zM5 2h1v1h-1z\""), svg);
+    }
+
+    @Test(groups = {"unit"})
+    public void testEncode_NoMarginStartsAtOrigin() {
+        // Arrange
+        BitMatrix modules = new BitMatrix(3, 3);
+        modules.setRegion(0, 0, 3, 1);
+
+        // Act
+        String svg = QrSvgEncoder.encode(modules, 64, 0);
+
+        // Assert
+        Assert.assertTrue(svg.contains("viewBox=\"0 0 3 3\""));
+        Assert.assertTrue(svg.contains("d=\"M0 0h3v1h-3z\""), svg);
+        Assert.assertTrue(svg.endsWith("</svg>"));
+    }
+}
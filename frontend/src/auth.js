@@ -0,0 +1,70 @@
+// Sends the signed-in user's access token with every /api request. When the backend answers 401 the token
+// pair is refreshed once and the request repeated; if that fails the stale tokens are dropped and the request
+// goes out without one, as it did before sign-in.
+const nativeFetch = window.fetch.bind(window);
+let refreshing = null;
+
+function isApi(input) {
+  return typeof input === 'string' && input.startsWith('/api/') && !input.startsWith('/api/auth/');
+}
+
+function withToken(init, token) {
+  const headers = new Headers((init && init.headers) || undefined);
+  headers.set('Authorization', `Bearer ${token}`);
+  return { ...init, headers };
+}
+
+function clearTokens() {
+  localStorage.removeItem('accessToken');
+  localStorage.removeItem('refreshToken');
+}
+
+// Concurrent 401s share one refresh call
+function refreshAccessToken() {
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (!refreshToken) return Promise.resolve(null);
+  if (!refreshing) {
+    refreshing = nativeFetch('/api/auth/refresh', {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken })
+    })
+      .then(async res => {
+        if (!res.ok) return null;
+        const pair = await res.json();
+        localStorage.setItem('accessToken', pair.accessToken);
+        localStorage.setItem('refreshToken', pair.refreshToken);
+        return pair.accessToken;
+      })
+      .catch(() => null)
+      .finally(() => { refreshing = null; });
+  }
+  return refreshing;
+}
+
+export function installAuthFetch() {
+  window.fetch = async (input, init) => {
+    const token = localStorage.getItem('accessToken');
+    if (!token || !isApi(input)) return nativeFetch(input, init);
+    const res = await nativeFetch(input, withToken(init, token));
+    if (res.status !== 401) return res;
+    const fresh = await refreshAccessToken();
+    if (fresh) return nativeFetch(input, withToken(init, fresh));
+    clearTokens();
+    return nativeFetch(input, init);
+  };
+}
+
+// Downloads a protected export. Plain <a href> links cannot carry the Authorization header, so the file is
+// fetched through the wrapped fetch above and saved from a blob URL.
+export async function downloadFile(url) {
+  const res = await window.fetch(url);
+  if (!res.ok) throw new Error(`Download failed (${res.status})`);
+  const blob = await res.blob();
+  const named = /filename="?([^";]+)"?/.exec(res.headers.get('Content-Disposition') || '');
+  const link = document.createElement('a');
+  link.href = URL.createObjectURL(blob);
+  link.download = named ? named[1] : url.split('?')[0].split('/').pop();
+  link.click();
+  URL.revokeObjectURL(link.href);
+}
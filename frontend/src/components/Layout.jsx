@@ -19,12 +19,16 @@ export default function Layout({ children }) {
 
   function logout(){
     localStorage.removeItem('healthId');
+    localStorage.removeItem('accessToken');
+    localStorage.removeItem('refreshToken');
     setHealthId('');
     navigate('/login');
   }
 
   function doctorLogout(){
     localStorage.removeItem('doctorId');
+    localStorage.removeItem('accessToken');
+    localStorage.removeItem('refreshToken');
     setDoctorId('');
     navigate('/doctor/login');
   }
@@ -1,22 +1,44 @@
 import React from 'react';
 import { FaClipboardList, FaCheck, FaTimes } from 'react-icons/fa';
+import { downloadFile } from '../auth';
 
 export default function AdminAppointments(){
   const [list, setList] = React.useState([]);
+  const [nextCursor, setNextCursor] = React.useState(null);
 
   async function load(){
-    const res = await fetch('/api/admin/appointments');
-    setList(await res.json());
+    const res = await fetch('/api/admin/appointments?limit=100');
+    const page = await res.json();
+    setList(page.items || []);
+    setNextCursor(page.nextCursor || null);
+  }
+
+  async function loadMore(){
+    if(!nextCursor) return;
+    const res = await fetch(`/api/admin/appointments?limit=100&cursor=${encodeURIComponent(nextCursor)}`);
+    const page = await res.json();
+    setList(prev => [...prev, ...(page.items || [])]);
+    setNextCursor(page.nextCursor || null);
   }
 
   async function confirm(id){ await fetch(`/api/admin/appointments/${id}/confirm`, { method:'POST' }); load(); }
   async function reject(id){ await fetch(`/api/admin/appointments/${id}/reject`, { method:'POST' }); load(); }
+  async function confirmAllPending(){
+    const ids = list.filter(a => a.status === 'PENDING').map(a => a.id);
+    if(ids.length === 0) return;
+    await fetch('/api/admin/appointments/status', {
+      method:'POST', headers:{'Content-Type':'application/json'}, body: JSON.stringify({ ids, status:'CONFIRMED' })
+    });
+    load();
+  }
 
   React.useEffect(()=>{ load(); },[]);
 
   return (
     <div className="card">
       <h2 style={{display:'flex', alignItems:'center', gap:10}}><FaClipboardList/> Admin: Appointments</h2>
+      <button className="btn small icon" onClick={confirmAllPending} style={{marginRight:8}}><FaCheck/> Confirm all pending</button>
+      <button className="btn small" onClick={()=>downloadFile('/api/admin/appointments/export')}>Export (NDJSON)</button>
       {/* Table loads automatically on mount; no manual refresh needed */}
       <div style={{marginTop:16, overflowX:'auto'}}>
         <table className="table" style={{tableLayout:'auto'}}>
@@ -57,6 +79,9 @@ export default function AdminAppointments(){
             ))}
           </tbody>
         </table>
+        {nextCursor && (
+          <button className="btn small" onClick={loadMore} style={{marginTop:12}}>Load more</button>
+        )}
       </div>
     </div>
   );
@@ -1,5 +1,6 @@
 import React, { useEffect, useMemo, useRef, useState } from 'react';
 import * as htmlToImage from 'html-to-image';
+import { downloadFile } from '../auth';
 import {
   ResponsiveContainer,
   LineChart as RLineChart,
@@ -181,9 +182,9 @@ export default function AdminReports(){
             ))}
           </div>
           <div style={{marginLeft:'auto', display:'flex', gap:8}}>
-            <a className="btn" href={`${API}/export/patients/registration.csv${from||to ? `?${new URLSearchParams({from,to}).toString()}`:''}`}>Export Registrations CSV</a>
-            <a className="btn" href={`${API}/export/appointments/summary.csv?period=${period}`}>Export Summary CSV</a>
-            <a className="btn" href={`${API}/export/appointments.pdf`} target="_blank" rel="noreferrer">Export Appointments PDF</a>
+            <button className="btn" onClick={()=>downloadFile(`${API}/export/patients/registration.csv${from||to ? `?${new URLSearchParams({from,to}).toString()}`:''}`)}>Export Registrations CSV</button>
+            <button className="btn" onClick={()=>downloadFile(`${API}/export/appointments/summary.csv?period=${period}`)}>Export Summary CSV</button>
+            <button className="btn" onClick={()=>downloadFile(`${API}/export/appointments.pdf`)}>Export Appointments PDF</button>
           </div>
         </div>
 
@@ -213,7 +214,7 @@ export default function AdminReports(){
         subtitle={from||to? `Filtered ${from||'…'} to ${to||'…'}`: 'All time'}
         actions={[
           <button key="png" className="btn" onClick={dlReg}>Download PNG</button>,
-          <a key="csv" className="btn" href={`${API}/export/patients/registration.csv${from||to ? `?${new URLSearchParams({from,to}).toString()}`:''}`}>Export CSV</a>
+          <button key="csv" className="btn" onClick={()=>downloadFile(`${API}/export/patients/registration.csv${from||to ? `?${new URLSearchParams({from,to}).toString()}`:''}`)}>Export CSV</button>
         ]}
         chartRef={regRef}
       >
@@ -238,7 +239,7 @@ export default function AdminReports(){
           title="Age Demographics"
           actions={[
             <button key="png" className="btn" onClick={dlDemo}>Download PNG</button>,
-            <a key="csv" className="btn" href={`${API}/export/patients/demographics.csv`}>Export CSV</a>,
+            <button key="csv" className="btn" onClick={()=>downloadFile(`${API}/export/patients/demographics.csv`)}>Export CSV</button>,
           ]}
           chartRef={demoRef}
         >
@@ -264,7 +265,7 @@ export default function AdminReports(){
           actions={[
             <input key="search" placeholder="Search doctor" value={doctorQuery} onChange={e=>setDoctorQuery(e.target.value)} />,
             <button key="png" className="btn" onClick={dlLoad}>Download PNG</button>,
-            <a key="csv" className="btn" href={`${API}/export/doctors/appointment-load.csv`}>Export CSV</a>
+            <button key="csv" className="btn" onClick={()=>downloadFile(`${API}/export/doctors/appointment-load.csv`)}>Export CSV</button>
           ]}
           chartRef={loadRef}
         >
@@ -289,7 +290,7 @@ export default function AdminReports(){
         subtitle={`Status filter: ${Object.entries(statusFilter).filter(([,v])=>v).map(([k])=>k).join(', ') || 'None'}`}
         actions={[
           <button key="png" className="btn" onClick={dlSummary}>Download PNG</button>,
-          <a key="csv" className="btn" href={`${API}/export/appointments/summary.csv?period=${period}`}>Export CSV</a>,
+          <button key="csv" className="btn" onClick={()=>downloadFile(`${API}/export/appointments/summary.csv?period=${period}`)}>Export CSV</button>,
         ]}
         chartRef={summaryRef}
       >
@@ -316,7 +317,7 @@ export default function AdminReports(){
         actions={[
           <input key="search" placeholder="Search specialization" value={specQuery} onChange={e=>setSpecQuery(e.target.value)} />,
           <button key="png" className="btn" onClick={dlSpec}>Download PNG</button>,
-          <a key="csv" className="btn" href={`${API}/export/appointments/by-specialization.csv`}>Export CSV</a>,
+          <button key="csv" className="btn" onClick={()=>downloadFile(`${API}/export/appointments/by-specialization.csv`)}>Export CSV</button>,
         ]}
         chartRef={specRef}
       >
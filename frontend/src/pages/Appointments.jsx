@@ -50,7 +50,7 @@ export default function Appointments(){
       setStatus('Please complete all fields.');
       return;
     }
-    const res = await fetch(`/api/appointments/book?healthId=${encodeURIComponent(healthId)}&doctorId=${selectedDoctor}&date=${date}&time=${selectedSlot}`, { method:'POST' });
+    const res = await fetch(`/api/appointments/book?doctorId=${selectedDoctor}&date=${date}&time=${selectedSlot}`, { method:'POST' });
     if(!res.ok) { setStatus('Booking failed'); return; }
     setShowSuccess(true);
   }
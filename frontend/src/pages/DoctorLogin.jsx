@@ -22,6 +22,8 @@ export default function DoctorLogin(){
       const doc = await res.json();
       localStorage.setItem('doctorId', String(doc.id));
       localStorage.setItem('doctorName', doc.name || 'Doctor');
+      localStorage.setItem('accessToken', doc.accessToken);
+      localStorage.setItem('refreshToken', doc.refreshToken);
       navigate('/doctor/profile');
     }catch(err){
       setError(err?.message || 'Login failed');
@@ -70,7 +70,10 @@ export default function DoctorProfile(){
         if(!dRes.ok) throw new Error(await dRes.text());
         const d = await dRes.json();
         setDoctor(d);
-        const aRes = await fetch(`/api/doctors/${doctorId}/appointments`);
+        const today = new Date();
+        const until = new Date(today.getTime() + 13*24*60*60*1000);
+        const iso = d => `${d.getFullYear()}-${String(d.getMonth()+1).padStart(2,'0')}-${String(d.getDate()).padStart(2,'0')}`;
+        const aRes = await fetch(`/api/doctors/${doctorId}/agenda?from=${iso(today)}&to=${iso(until)}`);
         if(!aRes.ok) throw new Error(await aRes.text());
         const a = await aRes.json();
         setAppointments(a);
@@ -222,7 +225,7 @@ export default function DoctorProfile(){
           </div>
           <div style={{height:16}}/>
           <div className="card">
-            <h3 style={{display:'flex', alignItems:'center', gap:8}}><FaCalendarCheck/> My Appointments</h3>
+            <h3 style={{display:'flex', alignItems:'center', gap:8}}><FaCalendarCheck/> Agenda (next 14 days)</h3>
             <div style={{maxHeight:380, overflow:'auto'}}>
               <div style={{minWidth: '600px', overflowX:'auto'}}>
                 <table className="table">
@@ -18,6 +18,8 @@ export default function Login(){
       if (!res.ok) throw new Error(await res.text());
       const data = await res.json();
       localStorage.setItem('healthId', data.healthId);
+      localStorage.setItem('accessToken', data.accessToken);
+      localStorage.setItem('refreshToken', data.refreshToken);
       navigate('/profile');
     } catch (err) {
       setError('Login failed. ' + (err?.message || ''));
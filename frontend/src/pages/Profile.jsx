@@ -13,7 +13,7 @@ export default function Profile(){
     if(!healthId) return;
     const [pRes, aRes, rRes] = await Promise.all([
       fetch(`/api/patients/${encodeURIComponent(healthId)}`),
-      fetch(`/api/appointments/mine?healthId=${encodeURIComponent(healthId)}`),
+      fetch('/api/appointments/mine'),
       fetch(`/api/patients/${encodeURIComponent(healthId)}/records`)
     ]);
     if (pRes.ok) setPatient(await pRes.json());